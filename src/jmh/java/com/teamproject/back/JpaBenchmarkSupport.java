@@ -0,0 +1,57 @@
+package com.teamproject.back;
+
+import com.teamproject.back.entity.Address;
+import com.teamproject.back.entity.Cart;
+import com.teamproject.back.entity.Chats;
+import com.teamproject.back.entity.Comment;
+import com.teamproject.back.entity.EmailToken;
+import com.teamproject.back.entity.Item;
+import com.teamproject.back.entity.Likes;
+import com.teamproject.back.entity.Order;
+import com.teamproject.back.entity.Users;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+//벤치마크용 H2 인메모리 DB + Hibernate 부트스트랩
+//스프링 컨텍스트 없이 리포지토리를 직접 생성해서 EntityManager 를 주입
+public final class JpaBenchmarkSupport {
+
+    private static final List<Class<?>> ENTITIES = List.of(
+            Address.class, Cart.class, Chats.class, Comment.class, EmailToken.class,
+            Item.class, Likes.class, Order.class, Users.class);
+
+    private JpaBenchmarkSupport() {
+    }
+
+    public static SessionFactory createSessionFactory(String databaseName) {
+        Configuration configuration = new Configuration()
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_PASSWORD, "")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.SHOW_SQL, "false");
+        //스프링 부트 기본값과 동일한 컬럼 이름 규칙
+        configuration.setPhysicalNamingStrategy(new CamelCaseToUnderscoresNamingStrategy());
+        ENTITIES.forEach(configuration::addAnnotatedClass);
+
+        return configuration.buildSessionFactory();
+    }
+
+    //@PersistenceContext 필드에 EntityManager 주입
+    public static <T> T inject(T repository, EntityManager entityManager) {
+        Field field = ReflectionUtils.findField(repository.getClass(), null, EntityManager.class);
+        if (field == null) {
+            throw new IllegalArgumentException(repository.getClass() + " has no EntityManager field.");
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, repository, entityManager);
+        return repository;
+    }
+}
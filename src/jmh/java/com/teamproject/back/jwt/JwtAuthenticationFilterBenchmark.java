@@ -0,0 +1,176 @@
+package com.teamproject.back.jwt;
+
+import com.teamproject.back.entity.Role;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.ReflectionUtils;
+
+import javax.crypto.SecretKey;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//JwtAuthenticationFilter 요청 1건당 비용
+//tokenCount 개의 서로 다른 토큰 (회원) 을 스레드마다 돌아가며 사용
+//  1 : 같은 토큰 반복, 10000 : 캐시 크기 이하, 100000 : 캐시 크기 초과 (정리/미스 반복)
+//perCallParser : 이전 방식 (isValid, getAuthentication 에서 매번 parser 를 만들고 서명을 두 번 검증)
+//noCache : parser 재사용, 서명은 두 번 검증 (jwt.verified-cache-size=0)
+//cached : parser 재사용 + 검증된 토큰 캐시 (크기 CACHE_SIZE)
+//스레드 수별로 실행 : SingleThread / EightThreads / ThirtyTwoThreads
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class JwtAuthenticationFilterBenchmark {
+
+    private static final String KEY = "0123456789abcdef0123456789abcdef";
+    private static final int CACHE_SIZE = 10000;
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"1", "10000", "100000"})
+    public int tokenCount;
+
+    private JwtAuthenticationFilter noCacheFilter;
+    private JwtAuthenticationFilter cachedFilter;
+    private SecretKey secretKey;
+    private HttpServletRequest[] requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        //필터/토큰 처리 로그가 측정을 덮지 않도록 끔
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("com.teamproject.back.jwt"))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+
+        JwtTokenProvider noCacheProvider = newProvider(0);
+        JwtTokenProvider cachedProvider = newProvider(CACHE_SIZE);
+        noCacheFilter = new JwtAuthenticationFilter(noCacheProvider);
+        cachedFilter = new JwtAuthenticationFilter(cachedProvider);
+        secretKey = Keys.hmacShaKeyFor(KEY.getBytes());
+
+        requests = new HttpServletRequest[tokenCount];
+        for (int i = 0; i < tokenCount; i++) {
+            String token = cachedProvider.createToken((long) i, "benchmark.user" + i + "@teamproject.com", Role.USER);
+            requests[i] = requestWithBearer(token);
+        }
+    }
+
+    //스레드마다 다른 위치부터 토큰을 돌아가며 사용
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            next = ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE);
+        }
+
+        private HttpServletRequest nextRequest(HttpServletRequest[] requests) {
+            next = next + 1 == Integer.MAX_VALUE ? 0 : next + 1;
+            return requests[next % requests.length];
+        }
+    }
+
+    @Benchmark
+    public Authentication perCallParser(Cursor cursor) {
+        //이전 필터 : isValid -> tokenToClaims, getAuthentication -> tokenToClaims
+        HttpServletRequest request = cursor.nextRequest(requests);
+        String token = request.getHeader("Authorization").substring(7);
+        Claims payload = parsePerCall(token);
+        if(payload != null && payload.getExpiration().after(new Date())){
+            Claims claims = parsePerCall(token);
+            List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(claims.get("role").toString()));
+            Object userId = claims.get("uid");
+            JwtPrincipal principal = new JwtPrincipal(userId instanceof Number number ? number.longValue() : null,
+                    claims.getSubject(), authorities);
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(principal, token, authorities));
+        }
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public Authentication noCache(Cursor cursor) throws Exception {
+        noCacheFilter.doFilterInternal(cursor.nextRequest(requests), null, NO_OP_CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public Authentication cached(Cursor cursor) throws Exception {
+        cachedFilter.doFilterInternal(cursor.nextRequest(requests), null, NO_OP_CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private Claims parsePerCall(String token) {
+        return Jwts.parser()
+                .verifyWith(secretKey)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private static JwtTokenProvider newProvider(int verifiedCacheSize) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        setField(provider, "KEY", KEY);
+        setField(provider, "VERIFIED_CACHE_SIZE", verifiedCacheSize);
+        Method setSecretKey = ReflectionUtils.findMethod(JwtTokenProvider.class, "setSecretKey");
+        ReflectionUtils.makeAccessible(setSecretKey);
+        ReflectionUtils.invokeMethod(setSecretKey, provider);
+        return provider;
+    }
+
+    //필터는 Authorization 헤더만 읽음
+    private static HttpServletRequest requestWithBearer(String token) {
+        String authorization = "Bearer " + token;
+        return (HttpServletRequest) Proxy.newProxyInstance(
+                HttpServletRequest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class},
+                (proxy, method, args) -> "getHeader".equals(method.getName()) && "Authorization".equals(args[0])
+                        ? authorization
+                        : null);
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    @Threads(1)
+    public static class SingleThread extends JwtAuthenticationFilterBenchmark {
+    }
+
+    @Threads(8)
+    public static class EightThreads extends JwtAuthenticationFilterBenchmark {
+    }
+
+    @Threads(32)
+    public static class ThirtyTwoThreads extends JwtAuthenticationFilterBenchmark {
+    }
+}
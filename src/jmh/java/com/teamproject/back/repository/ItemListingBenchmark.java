@@ -0,0 +1,144 @@
+package com.teamproject.back.repository;
+
+import com.teamproject.back.JpaBenchmarkSupport;
+import com.teamproject.back.dto.ItemFormResponseDto;
+import com.teamproject.back.dto.ItemSummaryDto;
+import com.teamproject.back.entity.Category;
+import com.teamproject.back.entity.Item;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//상품 목록 한 페이지 조회 비용 비교
+//entityPage     : Item 엔티티를 영속성 컨텍스트에 올린 뒤 응답 DTO 로 복사 (변경 전)
+//projectionPage : ItemRepository 의 생성자 표현식 조회 결과를 응답 DTO 로 복사 (변경 후)
+//gc.alloc.rate.norm 값이 페이지 1회 조회당 힙 할당량
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemListingBenchmark {
+
+    private static final int ITEM_COUNT = 5_000;
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private SessionFactory sessionFactory;
+    private ItemRepository itemRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = JpaBenchmarkSupport.createSessionFactory("item_listing");
+        itemRepository = new ItemRepository();
+
+        EntityManager em = sessionFactory.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 1; i <= ITEM_COUNT; i++) {
+            int ratingCount = i % 30;
+            long ratingSum = ratingCount * (long) (i % 5 + 1);
+            em.persist(Item.builder()
+                    .itemName("상품 " + i)
+                    .itemDesc("상품 설명 " + i + " - 벤치마크용 긴 설명 문자열입니다.")
+                    .itemImg("https://storage.cloud.google.com/bench/" + i)
+                    .itemStock(100)
+                    .itemPrice(10_000 + i)
+                    .itemOriginPrice(12_000 + i)
+                    .itemBrand("brand" + (i % 50))
+                    .category(Category.values()[i % Category.values().length])
+                    .ratingSum(ratingSum)
+                    .ratingCount(ratingCount)
+                    .commentCount(ratingCount)
+                    .ratingAverage(ratingCount == 0 ? 0 : (double) ratingSum / ratingCount)
+                    .build());
+            if (i % 500 == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<ItemFormResponseDto> entityPage() {
+        EntityManager em = sessionFactory.createEntityManager();
+        try {
+            List<Item> items = em.createQuery("SELECT i FROM Item i ORDER BY i.id DESC", Item.class)
+                    .setMaxResults(pageSize)
+                    .getResultList();
+
+            List<ItemFormResponseDto> page = new ArrayList<>(items.size());
+            for (Item item : items) {
+                page.add(ItemFormResponseDto.builder()
+                        .id(item.getId())
+                        .itemName(item.getItemName())
+                        .itemDesc(item.getItemDesc())
+                        .itemImg(item.getItemImg())
+                        .averageRating(item.getAverageRating())
+                        .commentCount(item.getCommentCount())
+                        .itemStock(item.getItemStock())
+                        .itemOriginPrice(item.getItemOriginPrice())
+                        .itemPrice(item.getItemPrice())
+                        .itemBrand(item.getItemBrand())
+                        .category(item.getCategory())
+                        .build());
+            }
+            return page;
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public List<ItemFormResponseDto> projectionPage() {
+        EntityManager em = sessionFactory.createEntityManager();
+        try {
+            List<ItemSummaryDto> items = JpaBenchmarkSupport.inject(itemRepository, em)
+                    .findItemsWithPagination(pageSize, 1);
+
+            List<ItemFormResponseDto> page = new ArrayList<>(items.size());
+            for (ItemSummaryDto item : items) {
+                page.add(ItemFormResponseDto.builder()
+                        .id(item.id())
+                        .itemName(item.itemName())
+                        .itemDesc(item.itemDesc())
+                        .itemImg(item.itemImg())
+                        .averageRating(item.averageRating())
+                        .commentCount(item.commentCount())
+                        .itemStock(item.itemStock())
+                        .itemOriginPrice(item.itemOriginPrice())
+                        .itemPrice(item.itemPrice())
+                        .itemBrand(item.itemBrand())
+                        .category(item.category())
+                        .build());
+            }
+            return page;
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.teamproject.back.service.search;
+
+import com.teamproject.back.dto.ItemSummaryDto;
+import com.teamproject.back.entity.Category;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//초성 검색 1회 비용 (상품 수 1천 / 1만 / 10만)
+//상품명은 고정 시드로 만든 "브랜드 + 품목 + 수식어" 조합
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemChosungIndexBenchmark {
+
+    private static final String[] BRANDS = {"나이키", "아디다스", "뉴발란스", "언더아머", "데상트", "르까프", "프로스펙스", "휠라"};
+    private static final String[] PRODUCTS = {"덤벨", "케틀벨", "요가매트", "러닝화", "바벨", "폼롤러", "줄넘기", "스쿼트랙", "풀업바", "밴드"};
+    private static final String[] SUFFIXES = {"프로", "라이트", "세트", "스페셜", "에디션", "플러스", "미니", "맥스"};
+
+    @Param({"1000", "10000", "100000"})
+    private int catalogSize;
+
+    private ItemChosungIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        List<ItemSummaryDto> items = new ArrayList<>(catalogSize);
+        for (int i = 1; i <= catalogSize; i++) {
+            String name = BRANDS[random.nextInt(BRANDS.length)] + " "
+                    + PRODUCTS[random.nextInt(PRODUCTS.length)] + " "
+                    + SUFFIXES[random.nextInt(SUFFIXES.length)] + " " + (random.nextInt(50) + 1) + "kg";
+            items.add(new ItemSummaryDto(i, name, "", "", 10, 10_000, 12_000, "brand",
+                    Category.values()[i % Category.values().length], 0, random.nextInt(100)));
+        }
+
+        index = new ItemChosungIndex();
+        index.replaceAll(items);
+    }
+
+    //초성 2글자 (흔한 패턴, 후보 많음)
+    @Benchmark
+    public List<ItemSummaryDto> chosungShort() {
+        return index.search("ㄷㅂ");
+    }
+
+    //초성 4글자 (후보가 좁혀지는 경우)
+    @Benchmark
+    public List<ItemSummaryDto> chosungLong() {
+        return index.search("ㅋㅌㅂㅍ");
+    }
+
+    //음절 + 초성 혼합
+    @Benchmark
+    public List<ItemSummaryDto> mixedJamo() {
+        return index.search("요가ㅁ");
+    }
+
+    //일치 없음 (posting 조회만)
+    @Benchmark
+    public List<ItemSummaryDto> noMatch() {
+        return index.search("ㅋㅋㅋ");
+    }
+}
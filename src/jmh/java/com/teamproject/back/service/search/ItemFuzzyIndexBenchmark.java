@@ -0,0 +1,92 @@
+package com.teamproject.back.service.search;
+
+import com.teamproject.back.dto.ItemSummaryDto;
+import com.teamproject.back.entity.Category;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//오타 검색 1회 비용 : BK-tree vs 전체 상품명 선형 비교
+//선형 비교는 상품마다 ItemFuzzyIndex 와 같은 단어(상품명 전체 + 토큰)에 대해 편집 거리를 계산
+//단어 분리는 양쪽 모두 @Setup 에서 미리 해 두므로 검색 알고리즘 비용만 비교
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemFuzzyIndexBenchmark {
+
+    private static final String[] BRANDS = {"나이키", "아디다스", "뉴발란스", "언더아머", "데상트", "르까프", "프로스펙스", "휠라"};
+    private static final String[] PRODUCTS = {"덤벨", "케틀벨", "요가매트", "러닝화", "바벨", "폼롤러", "줄넘기", "스쿼트랙", "풀업바", "밴드"};
+    private static final String[] SUFFIXES = {"프로", "라이트", "세트", "스페셜", "에디션", "플러스", "미니", "맥스"};
+
+    @Param({"1000", "10000", "100000"})
+    private int catalogSize;
+
+    //"스쿼트랙" 오타, "요가매트" 오타 2글자
+    @Param({"스쿼드랙", "요가메트러"})
+    private String query;
+
+    private ItemFuzzyIndex index;
+    private List<ItemSummaryDto> items;
+    //items 와 같은 순서의 상품별 단어
+    private List<String[]> itemTerms;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        items = new ArrayList<>(catalogSize);
+        for (int i = 1; i <= catalogSize; i++) {
+            String name = BRANDS[random.nextInt(BRANDS.length)] + " "
+                    + PRODUCTS[random.nextInt(PRODUCTS.length)] + " "
+                    + SUFFIXES[random.nextInt(SUFFIXES.length)] + " " + random.nextInt(100_000);
+            items.add(new ItemSummaryDto(i, name, "", "", 10, 10_000, 12_000, "brand",
+                    Category.values()[i % Category.values().length], 0, random.nextInt(100)));
+        }
+
+        itemTerms = new ArrayList<>(catalogSize);
+        for (ItemSummaryDto item : items) {
+            itemTerms.add(ItemFuzzyIndex.termsOf(item.itemName()).toArray(new String[0]));
+        }
+
+        index = new ItemFuzzyIndex();
+        index.replaceAll(items);
+    }
+
+    @Benchmark
+    public List<ItemSummaryDto> bkTree() {
+        return index.search(query);
+    }
+
+    @Benchmark
+    public List<ItemSummaryDto> linearScan() {
+        String normalized = ItemSearchIndex.normalize(query);
+        int maxDistance = normalized.length() <= 3 ? 1 : 2;
+
+        List<ItemSummaryDto> result = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            for (String term : itemTerms.get(i)) {
+                if (ItemFuzzyIndex.distance(normalized, term) <= maxDistance) {
+                    result.add(items.get(i));
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+}
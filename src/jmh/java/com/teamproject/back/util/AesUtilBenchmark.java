@@ -0,0 +1,146 @@
+package com.teamproject.back.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+//AesUtil 암호화/복호화/HMAC 처리량과 연산 1회당 할당량 (gc.alloc.rate.norm)
+//스레드 수별로 실행 : AesUtilBenchmark.SingleThread / EightThreads / ThirtyTwoThreads
+//perCallCipher* 는 이전 방식 (호출마다 SecretKeySpec + Cipher.getInstance) 비교용
+//Cipher 재사용 효과만 보려면 같은 알고리즘끼리 비교 : encrypt/decrypt ↔ perCallCipherEncrypt/Decrypt (GCM),
+//encryptLegacy/decryptLegacy ↔ perCallCipherEncryptLegacy/DecryptLegacy (ECB)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class AesUtilBenchmark {
+
+    private static final String SECRET = "0123456789abcdef";
+    private static final String BLIND_INDEX_SECRET = "blind-index-benchmark-secret";
+    private static final String EMAIL = "benchmark.user@teamproject.com";
+
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BIT = 128;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    private String encrypted;
+    private String legacyEncrypted;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AesUtil aesUtil = new AesUtil();
+        setField(aesUtil, "SECRET", SECRET);
+        setField(aesUtil, "BLIND_INDEX_SECRET", BLIND_INDEX_SECRET);
+        setField(aesUtil, "ACTIVE_KEY_VERSION", 1);
+        aesUtil.init();
+
+        encrypted = AesUtil.encrypt(EMAIL);
+        legacyEncrypted = AesUtil.encryptLegacy(EMAIL);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return AesUtil.encrypt(EMAIL);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return AesUtil.decrypt(encrypted);
+    }
+
+    @Benchmark
+    public String encryptLegacy() {
+        return AesUtil.encryptLegacy(EMAIL);
+    }
+
+    @Benchmark
+    public String decryptLegacy() {
+        return AesUtil.decrypt(legacyEncrypted);
+    }
+
+    @Benchmark
+    public String blindIndex() {
+        return AesUtil.blindIndex(EMAIL);
+    }
+
+    @Benchmark
+    public String perCallCipherEncrypt() throws Exception {
+        byte[] plainBytes = EMAIL.getBytes(StandardCharsets.UTF_8);
+        byte[] iv = new byte[IV_LENGTH];
+        SECURE_RANDOM.nextBytes(iv);
+
+        SecretKeySpec keySpec = new SecretKeySpec(SECRET.getBytes(), "AES");
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, keySpec, new GCMParameterSpec(TAG_LENGTH_BIT, iv));
+
+        byte[] output = new byte[IV_LENGTH + cipher.getOutputSize(plainBytes.length)];
+        System.arraycopy(iv, 0, output, 0, IV_LENGTH);
+        cipher.doFinal(plainBytes, 0, plainBytes.length, output, IV_LENGTH);
+        return "v1:" + Base64.getEncoder().encodeToString(output);
+    }
+
+    @Benchmark
+    public String perCallCipherDecrypt() throws Exception {
+        byte[] input = Base64.getDecoder().decode(encrypted.substring(encrypted.indexOf(':') + 1));
+
+        SecretKeySpec keySpec = new SecretKeySpec(SECRET.getBytes(), "AES");
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, keySpec, new GCMParameterSpec(TAG_LENGTH_BIT, input, 0, IV_LENGTH));
+        return new String(cipher.doFinal(input, IV_LENGTH, input.length - IV_LENGTH), StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String perCallCipherEncryptLegacy() throws Exception {
+        SecretKeySpec keySpec = new SecretKeySpec(SECRET.getBytes(), "AES");
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, keySpec);
+        return Base64.getEncoder().encodeToString(cipher.doFinal(EMAIL.getBytes()));
+    }
+
+    @Benchmark
+    public String perCallCipherDecryptLegacy() throws Exception {
+        SecretKeySpec keySpec = new SecretKeySpec(SECRET.getBytes(), "AES");
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.DECRYPT_MODE, keySpec);
+        return new String(cipher.doFinal(Base64.getDecoder().decode(legacyEncrypted)));
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    @Threads(1)
+    public static class SingleThread extends AesUtilBenchmark {
+    }
+
+    @Threads(8)
+    public static class EightThreads extends AesUtilBenchmark {
+    }
+
+    @Threads(32)
+    public static class ThirtyTwoThreads extends AesUtilBenchmark {
+    }
+}
@@ -7,6 +7,9 @@ import com.teamproject.back.entity.Item;
 import com.teamproject.back.service.CommentService;
 import com.teamproject.back.service.ItemService;
 import com.teamproject.back.service.UserService;
+import com.teamproject.back.service.cache.ItemListCache;
+import com.teamproject.back.service.cache.ItemRequestCoalescer;
+import com.teamproject.back.service.like.LikeWriteBuffer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +17,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -24,6 +28,9 @@ public class AdminController {
     private final ItemService itemService;
     private final UserService userService;
     private final CommentService commentService;
+    private final ItemListCache itemListCache;
+    private final ItemRequestCoalescer itemRequestCoalescer;
+    private final LikeWriteBuffer likeWriteBuffer;
 
     // 삭제, 조회 기능
     //find/delete
@@ -31,12 +38,13 @@ public class AdminController {
     public ResponseEntity<List<ItemDTO>> adminFindItem(
             @RequestParam int page,
             @RequestParam int size,
-            @RequestParam String itemName
+            @RequestParam String itemName,
+            @RequestParam(defaultValue = "false") boolean fuzzy
     ) {
         log.info("아이템 이름{}", itemName);
         List<ItemDTO> itemList = new ArrayList<>();
         {
-            itemList = itemService.searchItemList(page, size, itemName);
+            itemList = itemService.searchItemList(page, size, itemName, fuzzy);
             return ResponseEntity.ok(itemList);
 
         }
@@ -69,6 +77,14 @@ public class AdminController {
             UserDto userDto = userService.findByUserId(id);
             return ResponseEntity.ok(userDto);
         }
+        //상품 목록 캐시 적중/미스 현황 + 요청 합치기(실행/합류) 현황 + 좋아요 쓰기 지연 대기/반영 현황
+        @GetMapping("/api/admin/cache/item")
+        public ResponseEntity<Map<String,Object>> adminItemCacheStats (){
+            Map<String,Object> map = new LinkedHashMap<>(itemListCache.getStats());
+            map.put("singleFlight", itemRequestCoalescer.getStats());
+            map.put("likeWriteBehind", likeWriteBuffer.getStats());
+            return ResponseEntity.ok(map);
+        }
         @GetMapping("/api/admin/item/detail/{id}")
         public ResponseEntity<Map<String,Object>> adminFindItemDetail (@PathVariable int id){
             Map<String,Object> map = new HashMap<>();
@@ -40,7 +40,7 @@ public class AuthController {
 
         userDto = authService.login(userDto.getEmail(), userDto.getPassword());
         if(userDto != null){
-            response.addCookie(jwtTokenProvider.createJwtCookie(userDto.getEmail(), userDto.getRole()));
+            response.addCookie(jwtTokenProvider.createJwtCookie(userDto.getId(), userDto.getEmail(), userDto.getRole()));
             return ResponseEntity.ok("Login successful");
         }
 
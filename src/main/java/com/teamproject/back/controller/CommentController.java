@@ -1,5 +1,6 @@
 package com.teamproject.back.controller;
 
+import com.teamproject.back.dto.CommentCursorPageDto;
 import com.teamproject.back.dto.CommentDto;
 import com.teamproject.back.service.CommentService;
 import lombok.extern.slf4j.Slf4j;
@@ -43,7 +44,22 @@ public class CommentController {
     }
 
     @GetMapping("/item/{itemId}/comments")
-    public ResponseEntity<?> getCommentsByItemId(@PathVariable Integer itemId){
+    public ResponseEntity<?> getCommentsByItemId(
+            @PathVariable Integer itemId,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "sort", defaultValue = "newest") String sort){
+        //size 가 있으면 커서 모드 => { comments, next }, 다음 요청에 next 를 cursor 로 전달
+        //sort : newest, rating_high, rating_low, likes
+        if(size != null){
+            CommentCursorPageDto commentCursorPageDto = commentService.findReviewsByCursor(itemId, sort, cursor, size);
+            if(commentCursorPageDto == null){
+                return ResponseEntity.badRequest().body("댓글 조회에 실패했습니다");
+            }
+
+            return ResponseEntity.ok(commentCursorPageDto);
+        }
+
         List<CommentDto> commentDto = commentService.findParentCommentsByItemId(itemId);
         if(commentDto == null){
             return ResponseEntity.badRequest().body("댓글 조회에 실패했습니다");
@@ -52,6 +68,17 @@ public class CommentController {
         return ResponseEntity.ok(commentDto);
     }
 
+    //댓글 + 답글 전체를 트리 구조로 한 번에 응답
+    @GetMapping("/item/{itemId}/comments/thread")
+    public ResponseEntity<?> getCommentThreadByItemId(@PathVariable Integer itemId){
+        List<CommentDto> commentDto = commentService.findThreadByItemId(itemId);
+        if(commentDto == null){
+            return ResponseEntity.badRequest().body("댓글 조회에 실패했습니다");
+        }
+
+        return ResponseEntity.ok(commentDto);
+    }
+
     @GetMapping("/comment/{id}/replies")
     public ResponseEntity<?> getChildCommentsById(@PathVariable Long id){
         List<CommentDto> commentDto = commentService.findChildCommentsById(id);
@@ -63,6 +90,28 @@ public class CommentController {
         return ResponseEntity.ok(commentDto);
     }
 
+    //댓글 + 모든 하위 답글 (트리)
+    @GetMapping("/comment/{id}/subtree")
+    public ResponseEntity<?> getCommentSubtreeById(@PathVariable Long id){
+        CommentDto commentDto = commentService.findSubtree(id);
+        if(commentDto == null){
+            return ResponseEntity.badRequest().body("댓글 조회에 실패했습니다");
+        }
+
+        return ResponseEntity.ok(commentDto);
+    }
+
+    //루트부터 부모까지의 조상 댓글
+    @GetMapping("/comment/{id}/ancestors")
+    public ResponseEntity<?> getCommentAncestorsById(@PathVariable Long id){
+        List<CommentDto> commentDto = commentService.findAncestors(id);
+        if(commentDto == null){
+            return ResponseEntity.badRequest().body("댓글 조회에 실패했습니다");
+        }
+
+        return ResponseEntity.ok(commentDto);
+    }
+
     @PostMapping("/item/{itemId}/comment")
     public ResponseEntity<?> postCommentByItemId(@PathVariable Integer itemId, @RequestBody CommentDto commentDto){
         CommentDto saveCommentDto = commentService.createComment(itemId, commentDto);
@@ -1,6 +1,7 @@
 package com.teamproject.back.controller;
 
 import com.teamproject.back.dto.ItemDTO;
+import com.teamproject.back.dto.ItemSuggestionDto;
 import com.teamproject.back.dto.UserDto;
 import com.teamproject.back.entity.Item;
 import com.teamproject.back.service.ItemService;
@@ -13,6 +14,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -54,10 +56,20 @@ public class HomeController {
 //    }
 
     @GetMapping("/api/search/{debouncedSearch}")
-    public ResponseEntity<List<ItemDTO>> searchController(@PathVariable String debouncedSearch){
+    public ResponseEntity<List<ItemDTO>> searchController(
+            @PathVariable String debouncedSearch,
+            @RequestParam(value = "fuzzy", defaultValue = "false") boolean fuzzy){
 //        System.out.println(debouncedSearch);
 //        log.error("searchData:{}",debouncedSearch);
-        List<ItemDTO> itemDTOList = itemService.findByItemName(debouncedSearch);
+        List<ItemDTO> itemDTOList = itemService.findByItemName(debouncedSearch, fuzzy);
         return ResponseEntity.ok(itemDTOList);
     }
+
+    //검색창 자동완성 (키 입력마다 호출, 상품명/브랜드 문자열만 응답)
+    @GetMapping("/api/suggest")
+    public ResponseEntity<List<ItemSuggestionDto>> suggestController(
+            @RequestParam("q") String q,
+            @RequestParam(value = "limit", defaultValue = "10") int limit){
+        return ResponseEntity.ok(itemService.suggest(q, limit));
+    }
 }
@@ -1,6 +1,7 @@
 package com.teamproject.back.controller;
 
 
+import com.teamproject.back.dto.ItemCursorPageDto;
 import com.teamproject.back.dto.ItemFormResponseDto;
 import com.teamproject.back.dto.ItemFormRequestDto;
 import com.teamproject.back.entity.Category;
@@ -62,8 +63,20 @@ public class ItemController {
     @GetMapping("/item")
     public ResponseEntity<?> itemGet(
             @RequestParam("size") int size,
-            @RequestParam("page") int page,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "cursor", required = false) String cursor,
             @RequestParam(value = "sort", defaultValue = "new") String sort){
+        //page 가 없으면 커서 모드 => { items, next } 응답, 다음 요청에 next 를 cursor 로 전달
+        //page 를 보내는 기존 클라이언트는 그대로 오프셋 모드
+        if(page == null){
+            ItemCursorPageDto itemCursorPageDto = itemService.findItemListByCursor(sort, cursor, size);
+            if(itemCursorPageDto != null){
+                return ResponseEntity.ok(itemCursorPageDto);
+            }
+
+            return ResponseEntity.badRequest().body("상품 조회에 실패 했습니다.");
+        }
+
         //page = page-1 => page는 0부터 시작
         List<ItemFormResponseDto> itemDtoList = null;
         if(sort.equals("new")){
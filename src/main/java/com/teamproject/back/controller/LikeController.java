@@ -9,6 +9,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @Controller
 @RequestMapping("/api/comment")
 @Slf4j
@@ -32,6 +34,18 @@ public class LikeController {
         return ResponseEntity.badRequest().body("like 조회 실패");
     }
 
+    //댓글 여러 개의 좋아요 수 + 내가 눌렀는지 여부 (최대 100개)
+    //GET /api/comment/likes?commentIds=1,2,3
+    @GetMapping("/likes")
+    public ResponseEntity<?> getLikesBatch(@RequestParam("commentIds") List<Long> commentIds){
+        List<LikeDto> likeDtoList = likeService.countLikes(commentIds);
+        if(likeDtoList != null){
+            return ResponseEntity.ok(likeDtoList);
+        }
+
+        return ResponseEntity.badRequest().body("like 조회 실패");
+    }
+
     @PostMapping("/like")
     public ResponseEntity<?> postLike(@RequestParam Long commentId){
         if(likeService.addLike(commentId) != null){
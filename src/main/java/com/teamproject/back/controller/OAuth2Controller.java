@@ -1,8 +1,10 @@
 package com.teamproject.back.controller;
 
 import com.teamproject.back.dto.LikeDto;
+import com.teamproject.back.dto.UserDto;
 import com.teamproject.back.entity.Role;
 import com.teamproject.back.jwt.JwtTokenProvider;
+import com.teamproject.back.service.AuthService;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,9 +21,11 @@ import java.net.URI;
 public class OAuth2Controller {
 
     private final JwtTokenProvider jwtTokenProvider;
+    private final AuthService authService;
 
-    public OAuth2Controller(JwtTokenProvider jwtTokenProvider) {
+    public OAuth2Controller(JwtTokenProvider jwtTokenProvider, AuthService authService) {
         this.jwtTokenProvider = jwtTokenProvider;
+        this.authService = authService;
     }
 
     @GetMapping("/google")
@@ -59,7 +63,9 @@ public class OAuth2Controller {
     @GetMapping("redirect/success/{email}")
     public ResponseEntity<String> successOAuth2(@PathVariable("email") String email, HttpServletResponse response){
         String redirectUrl = "http://localhost:3000";
-        response.addCookie(jwtTokenProvider.createJwtCookie(email, Role.USER));
+        //토큰에 회원 id 를 넣기 위해 로그인 시 한 번만 조회
+        UserDto userDto = authService.findByUser(email);
+        response.addCookie(jwtTokenProvider.createJwtCookie(userDto == null ? null : userDto.getId(), email, Role.USER));
         return ResponseEntity.status(HttpStatus.FOUND)
                 .location(URI.create(redirectUrl))
                 .build();
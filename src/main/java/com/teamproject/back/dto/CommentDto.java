@@ -1,6 +1,7 @@
 package com.teamproject.back.dto;
 
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.teamproject.back.entity.Comment;
 import com.teamproject.back.entity.Item;
 import com.teamproject.back.entity.Users;
@@ -30,7 +31,17 @@ public class CommentDto {
 
     private Long parentCommentId;
 
-//    private List<CommentDto> childComments;
+    //리뷰 목록(커서 모드)에서만 채움
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer likeCount;
+
+    //스레드 조회에서만 채움 (다른 응답에는 포함하지 않음)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<CommentDto> childComments;
+
+    //하위 답글 조회 (/comment/{id}/subtree) 의 루트에만 채움 (본인 제외 모든 하위 답글 수)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer descendantCount;
 
     @Override
     public String toString() {
@@ -0,0 +1,70 @@
+package com.teamproject.back.dto;
+
+import com.teamproject.back.util.CursorUtil;
+import lombok.Getter;
+
+//상품 목록 키셋 페이지네이션 커서
+//마지막 행의 정렬 키 + id (최신순은 id 만 사용)
+@Getter
+public class ItemCursor {
+
+    private final ItemSort sort;
+    private final Number key;
+    private final Integer id;
+
+    private ItemCursor(ItemSort sort, Number key, Integer id) {
+        this.sort = sort;
+        this.key = key;
+        this.id = id;
+    }
+
+    public static ItemCursor from(ItemSort sort, ItemSummaryDto item){
+        return new ItemCursor(sort, keyOf(sort, item), item.id());
+    }
+
+    //토큰이 비어 있으면 null (첫 페이지)
+    //정렬 기준이 다르거나 형식이 잘못된 토큰이면 IllegalArgumentException
+    public static ItemCursor decode(ItemSort sort, String token){
+        if(token == null || token.isBlank()){
+            return null;
+        }
+
+        String[] values = CursorUtil.decode(token);
+        if(values.length != 3 || !sort.getCode().equals(values[0])){
+            throw new IllegalArgumentException("올바르지 않은 커서입니다.");
+        }
+
+        return new ItemCursor(sort, parseKey(sort, values[1]), Integer.valueOf(values[2]));
+    }
+
+    public String encode(){
+        return CursorUtil.encode(sort.getCode(), key == null ? "" : key.toString(), id.toString());
+    }
+
+    private static Number keyOf(ItemSort sort, ItemSummaryDto item){
+        switch(sort){
+            case EXPENSIVE:
+            case CHEAP:
+                return item.itemPrice();
+            case RECOMMEND:
+                return item.ratingAverage();
+            case REVIEW:
+                return item.commentCount();
+            default:
+                return null;
+        }
+    }
+
+    private static Number parseKey(ItemSort sort, String value){
+        switch(sort){
+            case EXPENSIVE:
+            case CHEAP:
+            case REVIEW:
+                return Integer.valueOf(value);
+            case RECOMMEND:
+                return Double.valueOf(value);
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.teamproject.back.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+//커서 모드 상품 목록 응답
+//next 가 null 이면 마지막 페이지
+public class ItemCursorPageDto {
+
+    private List<ItemFormResponseDto> items;
+
+    private String next;
+}
@@ -1,11 +1,14 @@
 package com.teamproject.back.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.teamproject.back.entity.Category;
 
 import lombok.Builder;
 import lombok.Data;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
 @Data
 @Builder
 //상품 생성 및 수정
@@ -24,6 +27,10 @@ public class ItemFormResponseDto {
 
     private Integer commentCount;
 
+    //별점별 리뷰 수 (1점 ~ 5점), 상세 조회 (ItemService.findById) 에서만 채움, 등록/수정 응답에는 포함하지 않음
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Integer> ratingDistribution;
+
     private int itemStock;
 
     private int itemOriginPrice;
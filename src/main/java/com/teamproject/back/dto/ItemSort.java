@@ -0,0 +1,29 @@
+package com.teamproject.back.dto;
+
+import lombok.Getter;
+
+//상품 목록 정렬 기준 (GET /api/item 의 sort 파라미터)
+@Getter
+public enum ItemSort {
+    NEW("new"),
+    EXPENSIVE("expensive"),
+    CHEAP("cheap"),
+    RECOMMEND("recommend"),
+    REVIEW("review");
+
+    private final String code;
+
+    ItemSort(String code) {
+        this.code = code;
+    }
+
+    //알 수 없는 값은 기존과 동일하게 최신순
+    public static ItemSort from(String code){
+        for(ItemSort sort : values()){
+            if(sort.code.equals(code)){
+                return sort;
+            }
+        }
+        return NEW;
+    }
+}
@@ -0,0 +1,17 @@
+package com.teamproject.back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+//검색창 자동완성 항목
+//type : item(상품명), brand(브랜드)
+@Data
+@Builder
+@AllArgsConstructor
+public class ItemSuggestionDto {
+
+    private String text;
+
+    private String type;
+}
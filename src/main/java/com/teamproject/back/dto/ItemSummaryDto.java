@@ -0,0 +1,24 @@
+package com.teamproject.back.dto;
+
+import com.teamproject.back.entity.Category;
+
+//상품 목록 조회 전용 읽기 모델
+//JPQL 생성자 표현식으로 필요한 컬럼만 바로 매핑하므로 Item 엔티티가 영속성 컨텍스트에 올라가지 않음
+public record ItemSummaryDto(
+        Integer id,
+        String itemName,
+        String itemDesc,
+        String itemImg,
+        int itemStock,
+        int itemPrice,
+        int itemOriginPrice,
+        String itemBrand,
+        Category category,
+        double ratingAverage,
+        int commentCount) {
+
+    //기존 AVG(c.rating) 집계와 동일하게 소수점 이하는 버림
+    public Integer averageRating(){
+        return (int) ratingAverage;
+    }
+}
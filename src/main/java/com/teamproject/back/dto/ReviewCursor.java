@@ -0,0 +1,57 @@
+package com.teamproject.back.dto;
+
+import com.teamproject.back.entity.Comment;
+import com.teamproject.back.util.CursorUtil;
+import lombok.Getter;
+
+//상품 리뷰 키셋 페이지네이션 커서
+//마지막 리뷰의 정렬 키(평점 또는 좋아요 수) + id (최신순은 id 만 사용)
+@Getter
+public class ReviewCursor {
+
+    private final ReviewSort sort;
+    private final Integer key;
+    private final Long id;
+
+    private ReviewCursor(ReviewSort sort, Integer key, Long id) {
+        this.sort = sort;
+        this.key = key;
+        this.id = id;
+    }
+
+    public static ReviewCursor from(ReviewSort sort, Comment comment){
+        return new ReviewCursor(sort, keyOf(sort, comment), comment.getId());
+    }
+
+    //토큰이 비어 있으면 null (첫 페이지)
+    //정렬 기준이 다르거나 형식이 잘못된 토큰이면 IllegalArgumentException
+    public static ReviewCursor decode(ReviewSort sort, String token){
+        if(token == null || token.isBlank()){
+            return null;
+        }
+
+        String[] values = CursorUtil.decode(token);
+        if(values.length != 3 || !sort.getCode().equals(values[0])){
+            throw new IllegalArgumentException("올바르지 않은 커서입니다.");
+        }
+
+        Integer key = sort == ReviewSort.NEWEST ? null : Integer.valueOf(values[1]);
+        return new ReviewCursor(sort, key, Long.valueOf(values[2]));
+    }
+
+    public String encode(){
+        return CursorUtil.encode(sort.getCode(), key == null ? "" : key.toString(), id.toString());
+    }
+
+    private static Integer keyOf(ReviewSort sort, Comment comment){
+        switch(sort){
+            case RATING_HIGH:
+            case RATING_LOW:
+                return comment.getRating();
+            case LIKES:
+                return comment.getLikeCount();
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.teamproject.back.dto;
+
+import lombok.Getter;
+
+//상품 리뷰 목록 정렬 기준 (GET /api/item/{itemId}/comments 의 sort 파라미터)
+//평점순은 평점이 있는 리뷰만 대상
+@Getter
+public enum ReviewSort {
+    NEWEST("newest"),
+    RATING_HIGH("rating_high"),
+    RATING_LOW("rating_low"),
+    LIKES("likes");
+
+    private final String code;
+
+    ReviewSort(String code) {
+        this.code = code;
+    }
+
+    //알 수 없는 값은 최신순
+    public static ReviewSort from(String code){
+        for(ReviewSort sort : values()){
+            if(sort.code.equals(code)){
+                return sort;
+            }
+        }
+        return NEWEST;
+    }
+}
@@ -13,13 +13,23 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
-@Table
+//리뷰 목록 키셋 페이지네이션용 (상품, 부모 댓글 없음, 정렬 키, id)
+//답글 트리 조회용 (경로 접두어 검색)
+@Table(indexes = {
+        @Index(name = "idx_comment_item_parent_id", columnList = "item_id, parentComment_id, id"),
+        @Index(name = "idx_comment_item_parent_rating", columnList = "item_id, parentComment_id, rating, id"),
+        @Index(name = "idx_comment_item_parent_like", columnList = "item_id, parentComment_id, like_count, id"),
+        @Index(name = "idx_comment_path", columnList = "path")
+})
 @Entity
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Comment {
+
+    public static final int MAX_PATH_LENGTH = 760;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -52,6 +62,21 @@ public class Comment {
     @OneToMany(mappedBy = "comment", fetch = FetchType.LAZY)
     private List<Likes> likes = new ArrayList<>();
 
+    //좋아요 수 집계 컬럼 (좋아요 추가/삭제 시 LikeRepository 에서 같은 트랜잭션으로 갱신)
+    @Column(name = "like_count", nullable = false)
+    private int likeCount;
+
+    //루트부터 본인까지의 id 경로 (예: /12/57/301/)
+    //하위 답글 = path LIKE '/12/57/%', 조상 = 경로의 id 들 -> 재귀 조회 없이 인덱스 한 번으로 조회
+    //utf8mb4 인덱스 최대 길이(3072 byte) 안에 들어가도록 760자 제한
+    //기존 데이터는 CommentPathBackfillJob 으로 채움 (채우기 전에는 null)
+    @Column(name = "path", length = MAX_PATH_LENGTH)
+    private String path;
+
+    //루트 댓글 0, 답글은 부모 + 1
+    @Column(name = "depth", nullable = false)
+    private int depth;
+
 
 
     @PrePersist
@@ -62,16 +87,58 @@ public class Comment {
     }
 
 
+    //경로가 있으면 저장된 깊이 사용, 없으면 (이관 전 데이터) 부모를 따라 올라가며 계산
     public int depth(){
+        if(this.path != null){
+            return this.depth;
+        }
+
         int count = 0;
         Comment currentComment = this;
         while(currentComment.getParentComment() != null){
             count++;
-            currentComment = this.getParentComment();
+            currentComment = currentComment.getParentComment();
         }
         return count;
     }
 
+    //id 가 정해진 뒤(persist 이후) 호출, 부모 경로가 아직 없으면 경로도 비워 둠 (이관 작업이 채움)
+    //경로가 최대 길이를 넘으면 false
+    public boolean assignPath(){
+        if(this.parentComment == null){
+            this.path = "/" + this.id + "/";
+            this.depth = 0;
+            return true;
+        }
+
+        String parentPath = this.parentComment.getPath();
+        if(parentPath == null){
+            this.path = null;
+            this.depth = this.parentComment.getDepth() + 1;
+            return true;
+        }
+
+        String childPath = parentPath + this.id + "/";
+        if(childPath.length() > MAX_PATH_LENGTH){
+            return false;
+        }
+        this.path = childPath;
+        this.depth = this.parentComment.getDepth() + 1;
+        return true;
+    }
+
+    //경로에 들어 있는 조상 id (루트부터, 본인 제외)
+    public static List<Long> ancestorIdsOf(String path){
+        List<Long> ids = new ArrayList<>();
+        String[] segments = path.split("/");
+        for(int i = 0; i < segments.length - 1; i++){
+            if(!segments[i].isEmpty()){
+                ids.add(Long.parseLong(segments[i]));
+            }
+        }
+        return ids;
+    }
+
 
     public void fetchItem(Item item){
         this.item = item;
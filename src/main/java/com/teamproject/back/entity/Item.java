@@ -6,7 +6,11 @@ import lombok.*;
 import java.util.List;
 
 @Data
-@Table(name = "item")
+@Table(name = "item", indexes = {
+        @Index(name = "idx_item_price", columnList = "itemPrice, id"),
+        @Index(name = "idx_item_rating_average", columnList = "rating_average, id"),
+        @Index(name = "idx_item_comment_count", columnList = "comment_count, id")
+})
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
@@ -43,9 +47,44 @@ public class Item {
     @OneToMany(mappedBy = "item",fetch = FetchType.LAZY)
     private List<Comment> comments;
 
-    @Transient // 이 필드는 DB에 저장되지 않음
-    private Integer averageRating;
+    //평점/리뷰 집계 컬럼
+    //댓글 저장, 수정, 삭제 시 CommentRepository 에서 같은 트랜잭션으로 갱신
+    //목록 조회 시 Comment 테이블 GROUP BY 없이 바로 읽고 정렬에 사용
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
 
-    @Transient // 이 필드는 DB에 저장되지 않음
-    private Integer commentCount;
+    @Column(name = "rating_count", nullable = false)
+    private int ratingCount;
+
+    @Column(name = "comment_count", nullable = false)
+    private int commentCount;
+
+    @Column(name = "rating_average", nullable = false)
+    private double ratingAverage;
+
+    //별점별 리뷰 수 (상세 화면 분포), 위 집계 컬럼과 같은 UPDATE 문에서 함께 갱신
+    @Column(name = "star1_count", nullable = false)
+    private int star1Count;
+
+    @Column(name = "star2_count", nullable = false)
+    private int star2Count;
+
+    @Column(name = "star3_count", nullable = false)
+    private int star3Count;
+
+    @Column(name = "star4_count", nullable = false)
+    private int star4Count;
+
+    @Column(name = "star5_count", nullable = false)
+    private int star5Count;
+
+    //1점 ~ 5점 순서
+    public List<Integer> getRatingDistribution(){
+        return List.of(star1Count, star2Count, star3Count, star4Count, star5Count);
+    }
+
+    //기존 AVG(c.rating) 집계와 동일하게 소수점 이하는 버림
+    public Integer getAverageRating(){
+        return (int) ratingAverage;
+    }
 }
@@ -0,0 +1,41 @@
+package com.teamproject.back.entity;
+
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+//암호화 키 교체 작업 진행 위치 (작업이 중단돼도 lastId 다음부터 이어서 진행)
+@Entity
+@Table(name = "key_rotation_checkpoint")
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeyRotationCheckpoint {
+
+    //작업 이름 (예: users)
+    @Id
+    private String name;
+
+    //교체 목표 키 버전, 현재 키 버전과 다르면 처음부터 다시 진행
+    @Column(name = "key_version", nullable = false)
+    private int keyVersion;
+
+    //처리를 마친 마지막 id
+    @Column(name = "last_id", nullable = false)
+    private long lastId;
+
+    @Column(name = "updated_date", nullable = false)
+    private LocalDateTime updatedDate;
+
+    public void moveTo(int keyVersion, long lastId){
+        this.keyVersion = keyVersion;
+        this.lastId = lastId;
+        this.updatedDate = LocalDateTime.now();
+    }
+}
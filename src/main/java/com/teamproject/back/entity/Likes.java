@@ -9,7 +9,10 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "likes")
+//댓글 하나에 회원당 좋아요 1개
+@Table(name = "likes", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_likes_comment_user", columnNames = {"comment_id", "user_id"})
+})
 @Getter
 @Builder
 @NoArgsConstructor
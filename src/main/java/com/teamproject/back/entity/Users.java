@@ -9,11 +9,12 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+//이메일 중복/조회는 email_hash 로 (email 은 매번 다른 암호문)
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_users_email_hash", columnNames = "email_hash")
+})
 @Getter
-@Builder
 @NoArgsConstructor
-@AllArgsConstructor
 public class Users {
 
 
@@ -22,6 +23,10 @@ public class Users {
     private Long id;
     @Column(unique = true)
     private String email;
+    //이메일 HMAC (AesUtil.blindIndex), 저장/수정 시 갱신
+    //이관 전 데이터는 null (UserEmailHashBackfillJob)
+    @Column(name = "email_hash", length = 44)
+    private String emailHash;
     private String password;
     private String username;
 
@@ -56,6 +61,46 @@ public class Users {
     @OneToMany(mappedBy = "users", fetch = FetchType.LAZY)
     private List<Likes> likes;
 
+    //email, username 필드에는 DB 와 같은 암호문을 그대로 두고, 처음 읽을 때 한 번만 복호화해서 보관
+    //-> 이메일/이름을 읽지 않는 조회(작성자 조인, 채팅 발신자 등)는 복호화 비용이 없음
+    //-> 필드를 바꾸지 않으므로 변경 감지에 걸리지 않아 불필요한 UPDATE/재암호화도 없음
+    //builder 로 만든 새 회원은 평문이 들어 있고 저장 시(@PrePersist) 암호화
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private String plainEmail;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private String plainUsername;
+
+    //email, username 필드가 암호문인지 (DB 에서 읽었거나 저장된 뒤)
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private boolean encrypted;
+
+    //builder 는 컬럼/연관관계 필드만 받음
+    //(@Transient 상태 필드를 밖에서 넣으면 encryptField 가 건너뛰어 평문이 저장될 수 있음)
+    @Builder
+    public Users(Long id, String email, String emailHash, String password, String username, Role role,
+                 LocalDate birthday, LocalDateTime enrollDate, LocalDateTime deleteDate,
+                 List<Order> orders, List<Comment> comments, List<Address> addresses,
+                 List<Cart> carts, List<Likes> likes) {
+        this.id = id;
+        this.email = email;
+        this.emailHash = emailHash;
+        this.password = password;
+        this.username = username;
+        this.role = role;
+        this.birthday = birthday;
+        this.enrollDate = enrollDate;
+        this.deleteDate = deleteDate;
+        this.orders = orders;
+        this.comments = comments;
+        this.addresses = addresses;
+        this.carts = carts;
+        this.likes = likes;
+    }
+
     @PrePersist
     public void prePersist() {
         if (this.enrollDate == null) {
@@ -64,9 +109,10 @@ public class Users {
         encryptField();
     }
 
+    //복호화하지 않고 암호문이라는 표시만 함
     @PostLoad
     public void postLoad(){
-        decryptField();
+        this.encrypted = true;
     }
 
     @PreUpdate
@@ -74,20 +120,57 @@ public class Users {
         encryptField();
     }
 
+    public String getEmail(){
+        if(!encrypted){
+            return email;
+        }
+        if(plainEmail == null && email != null){
+            plainEmail = AesUtil.decrypt(email);
+        }
+        return plainEmail;
+    }
+
+    public String getUsername(){
+        if(!encrypted){
+            return username;
+        }
+        if(plainUsername == null && username != null){
+            plainUsername = AesUtil.decrypt(username);
+        }
+        return plainUsername;
+    }
+
     public void deleteUser() {
         this.deleteDate = LocalDateTime.now();
     }
 
+    //이관 작업용 : email_hash 를 채우고, 이전 형식 암호문만 새 형식으로 다시 암호화
+    public void assignEmailHash(){
+        String email = getEmail();
+        String username = getUsername();
+
+        this.emailHash = AesUtil.blindIndex(email);
+        if(!AesUtil.isCurrentFormat(this.email)){
+            this.email = AesUtil.encrypt(email);
+        }
+        if(this.username != null && !AesUtil.isCurrentFormat(this.username)){
+            this.username = AesUtil.encrypt(username);
+        }
+    }
+
+    //평문일 때만 암호화 (이미 암호문이면 아무것도 하지 않음)
     private void encryptField(){
+        if(encrypted){
+            return;
+        }
+        this.plainEmail = email;
+        this.plainUsername = username;
+
+        this.emailHash = AesUtil.blindIndex(email);
         this.email = AesUtil.encrypt(email);
-        this.username = AesUtil.encrypt(username);
+        this.username = username == null ? null : AesUtil.encrypt(username);
 //        this.phoneNumber = AesUtil.encrypt(phoneNumber);
-    }
-
-    private void decryptField(){
-        this.email = AesUtil.decrypt(email);
-        this.username = AesUtil.decrypt(username);
-//        this.phoneNumber = AesUtil.decrypt(phoneNumber);
+        this.encrypted = true;
     }
 
 }
@@ -0,0 +1,50 @@
+package com.teamproject.back.job;
+
+import com.teamproject.back.repository.CommentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+//comment.path / depth 최초 이관용
+//루트 댓글부터 한 단계씩 chunkSize 개씩 나눠 구간마다 별도 트랜잭션으로 채움
+//comment.path.backfill-on-startup=true 일 때만 기동 시 한 번 실행
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "comment.path.backfill-on-startup", havingValue = "true")
+public class CommentPathBackfillJob {
+
+    private final CommentRepository commentRepository;
+    private final int chunkSize;
+
+    @Autowired
+    public CommentPathBackfillJob(CommentRepository commentRepository,
+                                  @Value("${comment.path.backfill-chunk-size:1000}") int chunkSize) {
+        this.commentRepository = commentRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill(){
+        long start = System.currentTimeMillis();
+        int total = 0;
+        //경로 길이 초과로 채우지 못한 댓글 (다시 조회하지 않음)
+        Set<Long> failedIds = new HashSet<>();
+
+        while(true){
+            int count = commentRepository.backfillPaths(chunkSize, failedIds);
+            if(count == 0){
+                break;
+            }
+            total += count;
+        }
+
+        log.info("댓글 경로 이관 완료 : {}건 (실패 {}건), {}ms", total - failedIds.size(), failedIds.size(), System.currentTimeMillis() - start);
+    }
+}
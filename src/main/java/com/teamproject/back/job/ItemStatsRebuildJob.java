@@ -0,0 +1,36 @@
+package com.teamproject.back.job;
+
+import com.teamproject.back.repository.ItemRepository;
+import com.teamproject.back.repository.LikeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+//item 평점/리뷰 집계 컬럼, comment 좋아요 수 집계 컬럼 최초 이관용
+//item.stats.rebuild-on-startup=true 일 때만 기동 시 한 번 실행
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "item.stats.rebuild-on-startup", havingValue = "true")
+public class ItemStatsRebuildJob {
+
+    private final ItemRepository itemRepository;
+    private final LikeRepository likeRepository;
+
+    @Autowired
+    public ItemStatsRebuildJob(ItemRepository itemRepository, LikeRepository likeRepository) {
+        this.itemRepository = itemRepository;
+        this.likeRepository = likeRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild(){
+        int count = itemRepository.rebuildStats();
+        log.info("상품 평점 집계 재계산 완료 : {}건", count);
+
+        int commentCount = likeRepository.rebuildLikeCounts();
+        log.info("댓글 좋아요 수 재계산 완료 : {}건", commentCount);
+    }
+}
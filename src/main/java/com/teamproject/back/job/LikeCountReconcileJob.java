@@ -0,0 +1,49 @@
+package com.teamproject.back.job;
+
+import com.teamproject.back.repository.LikeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+//comment.like_count 집계 컬럼 어긋남 복구
+//댓글을 id 순으로 chunkSize 개씩 나눠 구간마다 별도 트랜잭션으로 처리 (긴 트랜잭션, 대량 잠금 방지)
+//like.reconcile.cron (기본 매일 04:30)
+@Component
+@Slf4j
+public class LikeCountReconcileJob {
+
+    private final LikeRepository likeRepository;
+    private final int chunkSize;
+
+    @Autowired
+    public LikeCountReconcileJob(LikeRepository likeRepository,
+                                 @Value("${like.reconcile.chunk-size:1000}") int chunkSize) {
+        this.likeRepository = likeRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${like.reconcile.cron:0 30 4 * * *}")
+    public void reconcile(){
+        long start = System.currentTimeMillis();
+        long lastId = 0;
+        int scanned = 0;
+        int repaired = 0;
+
+        while(true){
+            List<Long> commentIds = likeRepository.findCommentIdsAfter(lastId, chunkSize);
+            if(commentIds.isEmpty()){
+                break;
+            }
+
+            repaired += likeRepository.reconcileLikeCounts(commentIds);
+            scanned += commentIds.size();
+            lastId = commentIds.get(commentIds.size() - 1);
+        }
+
+        log.info("좋아요 수 복구 완료 : 댓글 {}건 중 {}건 수정, {}ms", scanned, repaired, System.currentTimeMillis() - start);
+    }
+}
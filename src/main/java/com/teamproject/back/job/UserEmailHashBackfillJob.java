@@ -0,0 +1,45 @@
+package com.teamproject.back.job;
+
+import com.teamproject.back.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+//users.email_hash 최초 이관용 (이관하면서 email, username 도 새 암호화 형식으로 바뀜)
+//chunkSize 명씩 나눠 구간마다 별도 트랜잭션으로 처리
+//users.email-hash.backfill-on-startup=true 일 때만 기동 시 한 번 실행
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "users.email-hash.backfill-on-startup", havingValue = "true")
+public class UserEmailHashBackfillJob {
+
+    private final UserRepository userRepository;
+    private final int chunkSize;
+
+    @Autowired
+    public UserEmailHashBackfillJob(UserRepository userRepository,
+                                    @Value("${users.email-hash.backfill-chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill(){
+        long start = System.currentTimeMillis();
+        int total = 0;
+
+        while(true){
+            int count = userRepository.backfillEmailHashes(chunkSize);
+            if(count == 0){
+                break;
+            }
+            total += count;
+        }
+
+        log.info("회원 email_hash 이관 완료 : {}건, {}ms", total, System.currentTimeMillis() - start);
+    }
+}
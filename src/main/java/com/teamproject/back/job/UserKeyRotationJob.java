@@ -0,0 +1,220 @@
+package com.teamproject.back.job;
+
+import com.teamproject.back.entity.KeyRotationCheckpoint;
+import com.teamproject.back.repository.KeyRotationCheckpointRepository;
+import com.teamproject.back.repository.UserCryptoRepository;
+import com.teamproject.back.repository.UserCryptoRepository.EncryptedUser;
+import com.teamproject.back.util.AesUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+//users.email, username 을 현재 키 (aes.active-key-version) 로 다시 암호화
+//id 구간 (chunkSize) 단위로 진행 :
+//  1. 구간의 행을 fetchSize 씩 읽으면서 이미 현재 키인 행은 건너뜀
+//  2. batchSize 행씩 작업 스레드 (threads) 에 넘겨 복호화 -> 암호화 -> 배치 UPDATE (배치마다 커밋)
+//  3. 구간의 배치가 모두 끝나면 key_rotation_checkpoint 에 마지막 id 저장 -> 중단돼도 다음 구간부터 이어서 진행
+//DB 부하 조절 : 배치 UPDATE 평균 시간이 targetBatchMillis 를 넘으면 구간 사이 쉬는 시간을 두 배로 (최대 maxPauseMillis), 아니면 절반으로
+//email_hash (blindIndex) 는 별도 키 (aes.blind-index-secret) 라 교체 대상이 아님
+//-> 1번 키 (aes.secret) 를 폐기해도 이메일 조회는 그대로 동작, 모든 행을 교체한 뒤 키 목록에서 빼면 됨
+//aes.rotation.enabled=true 일 때만 기동 후 별도 스레드로 한 번 실행
+//읽는 스레드 1 + 작업 스레드 수만큼 커넥션을 쓰므로 커넥션 풀 크기를 고려해서 threads 를 정함
+@Component
+@Slf4j
+public class UserKeyRotationJob {
+
+    private static final String CHECKPOINT_NAME = "users";
+    private static final long MIN_PAUSE_MILLIS = 10;
+
+    private final UserCryptoRepository userCryptoRepository;
+    private final KeyRotationCheckpointRepository checkpointRepository;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int batchSize;
+    private final int threads;
+    private final int fetchSize;
+    private final long targetBatchMillis;
+    private final long maxPauseMillis;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Autowired
+    public UserKeyRotationJob(UserCryptoRepository userCryptoRepository,
+                              KeyRotationCheckpointRepository checkpointRepository,
+                              @Value("${aes.rotation.enabled:false}") boolean enabled,
+                              @Value("${aes.rotation.chunk-size:10000}") int chunkSize,
+                              @Value("${aes.rotation.batch-size:500}") int batchSize,
+                              @Value("${aes.rotation.threads:4}") int threads,
+                              @Value("${aes.rotation.fetch-size:1000}") int fetchSize,
+                              @Value("${aes.rotation.target-batch-millis:50}") long targetBatchMillis,
+                              @Value("${aes.rotation.max-pause-millis:2000}") long maxPauseMillis) {
+        this.userCryptoRepository = userCryptoRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.threads = threads;
+        this.fetchSize = fetchSize;
+        this.targetBatchMillis = targetBatchMillis;
+        this.maxPauseMillis = maxPauseMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnReady(){
+        if(!enabled){
+            return;
+        }
+        Thread thread = new Thread(this::rotate, "user-key-rotation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    //다시 암호화한 행 수 반환
+    public long rotate(){
+        return rotate(Long.MAX_VALUE);
+    }
+
+    //maxChunks 구간만 진행하고 멈춤 (나머지는 다음 실행 때 체크포인트부터)
+    long rotate(long maxChunks){
+        if(!running.compareAndSet(false, true)){
+            log.info("키 교체 작업이 이미 실행 중입니다.");
+            return 0;
+        }
+
+        long start = System.currentTimeMillis();
+        int keyVersion = AesUtil.activeKeyVersion();
+        long rotated = 0;
+        long skipped = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try{
+            KeyRotationCheckpoint checkpoint = checkpointRepository.findByName(CHECKPOINT_NAME);
+            //키 버전이 바뀌었으면 처음부터
+            long lastId = checkpoint != null && checkpoint.getKeyVersion() == keyVersion ? checkpoint.getLastId() : 0;
+            long maxId = userCryptoRepository.findMaxId();
+            long pauseMillis = 0;
+            long chunks = 0;
+
+            while(lastId < maxId && chunks < maxChunks){
+                long toId = Math.min(lastId + chunkSize, maxId);
+                ChunkResult result;
+                try{
+                    result = rotateChunk(executor, lastId, toId);
+                }catch(RuntimeException e){
+                    //체크포인트는 이전 구간에 그대로 -> 다음 실행 때 이 구간부터 다시
+                    log.error("회원 암호화 키 교체 실패 : id {} ~ {}", lastId + 1, toId, e);
+                    break;
+                }
+                rotated += result.rotated();
+                skipped += result.skipped();
+                lastId = toId;
+                chunks++;
+
+                if(lastId == maxId && skipped > 0){
+                    //다른 요청과 겹쳐 건너뛴 행이 있으면 다음 실행 때 처음부터 다시 확인 (이미 바뀐 행은 읽기만 함)
+                    checkpointRepository.save(CHECKPOINT_NAME, keyVersion, 0);
+                }else{
+                    checkpointRepository.save(CHECKPOINT_NAME, keyVersion, lastId);
+                }
+
+                pauseMillis = nextPauseMillis(pauseMillis, result.averageBatchMillis());
+                if(pauseMillis > 0 && lastId < maxId){
+                    Thread.sleep(pauseMillis);
+                }
+            }
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            log.info("키 교체 작업 중단 (체크포인트부터 다시 진행)");
+        }catch(RuntimeException e){
+            //체크포인트 조회/저장 실패 등 (기동 시 별도 스레드로 실행되므로 여기서 남김)
+            log.error("회원 암호화 키 교체 실패", e);
+        }finally{
+            executor.shutdownNow();
+            running.set(false);
+        }
+
+        log.info("회원 암호화 키 교체 (v{}) : {}건, 건너뜀 {}건, {}ms",
+                keyVersion, rotated, skipped, System.currentTimeMillis() - start);
+        return rotated;
+    }
+
+    //(fromId, toId] 구간 처리, 배치가 하나라도 실패하면 예외 (체크포인트를 넘기지 않음)
+    private ChunkResult rotateChunk(ExecutorService executor, long fromId, long toId) throws InterruptedException {
+        List<Future<Integer>> futures = new ArrayList<>();
+        List<EncryptedUser> batch = new ArrayList<>(batchSize);
+        AtomicLong writeNanos = new AtomicLong();
+        int[] submitted = new int[1];
+
+        userCryptoRepository.streamEncryptedFields(fromId, toId, fetchSize, user -> {
+            if(AesUtil.isCurrentFormat(user.email())
+                    && (user.username() == null || AesUtil.isCurrentFormat(user.username()))){
+                return;
+            }
+            batch.add(user);
+            if(batch.size() == batchSize){
+                futures.add(executor.submit(() -> rotateBatch(new ArrayList<>(batch), writeNanos)));
+                submitted[0] += batch.size();
+                batch.clear();
+            }
+        });
+        if(!batch.isEmpty()){
+            List<EncryptedUser> last = new ArrayList<>(batch);
+            futures.add(executor.submit(() -> rotateBatch(last, writeNanos)));
+            submitted[0] += last.size();
+        }
+
+        int rotated = 0;
+        try{
+            for(Future<Integer> future : futures){
+                rotated += future.get();
+            }
+        }catch(ExecutionException e){
+            throw new IllegalStateException("키 교체 실패 : id " + (fromId + 1) + " ~ " + toId, e.getCause());
+        }
+
+        double averageBatchMillis = futures.isEmpty() ? 0 : writeNanos.get() / 1_000_000.0 / futures.size();
+        return new ChunkResult(rotated, submitted[0] - rotated, averageBatchMillis);
+    }
+
+    //복호화 -> 현재 키로 암호화 -> 배치 UPDATE, 수정된 행 수 반환
+    private int rotateBatch(List<EncryptedUser> users, AtomicLong writeNanos){
+        List<Object[]> withUsername = new ArrayList<>(users.size());
+        List<Object[]> withoutUsername = new ArrayList<>();
+        for(EncryptedUser user : users){
+            String email = AesUtil.encrypt(AesUtil.decrypt(user.email()));
+            if(user.username() == null){
+                withoutUsername.add(new Object[]{email, user.id(), user.email()});
+            }else{
+                String username = AesUtil.encrypt(AesUtil.decrypt(user.username()));
+                withUsername.add(new Object[]{email, username, user.id(), user.email(), user.username()});
+            }
+        }
+
+        //DB 부하 판단용으로 UPDATE 시간만 잼
+        long start = System.nanoTime();
+        int count = userCryptoRepository.updateEncryptedFields(withUsername, withoutUsername);
+        writeNanos.addAndGet(System.nanoTime() - start);
+        return count;
+    }
+
+    private long nextPauseMillis(long pauseMillis, double averageBatchMillis){
+        if(averageBatchMillis > targetBatchMillis){
+            return Math.min(maxPauseMillis, Math.max(MIN_PAUSE_MILLIS, pauseMillis * 2));
+        }
+        return pauseMillis / 2;
+    }
+
+    private record ChunkResult(int rotated, int skipped, double averageBatchMillis) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.teamproject.back.jwt;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+//JWT 인증 회원 (username = 이메일, userId = 회원 PK)
+//userId 클레임이 없는 이전 토큰이면 userId 는 null
+@Getter
+public class JwtPrincipal extends User {
+
+    private final Long userId;
+
+    public JwtPrincipal(Long userId, String email, Collection<? extends GrantedAuthority> authorities) {
+        super(email, "", authorities);
+        this.userId = userId;
+    }
+}
@@ -4,10 +4,12 @@ package com.teamproject.back.jwt;
 import com.teamproject.back.entity.Role;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.Cookie;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,14 +17,20 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 @Getter
@@ -37,11 +45,38 @@ public class JwtTokenProvider {
     private final long ACCESS_EXPIRE_TIME = 1000 * 60 * 12 * 30L;
     private final long REFRESH_EXPIRE_TIME = 1000 * 60 * 60L * 24 * 7;
     private final String KEY_ROLE = "role";
+    private final String KEY_USER_ID = "uid";
     private final String HEADER_TYPE = "typ";
     private final String HEADER_JWT_TYPE = "JWT";
     private final String ALGORITHM = "HmacSHA256";
     private final String JWT_COOKIE_NAME = "JwtCookie";
 
+    //검증을 마친 토큰 캐시 크기, 0 이면 캐시하지 않음
+    @Value("${jwt.verified-cache-size:10000}")
+    private int VERIFIED_CACHE_SIZE;
+
+    //parser 는 만든 뒤 상태가 바뀌지 않아 스레드 간 공유 가능 -> 기동 시 한 번만 만듦
+    @Getter(AccessLevel.NONE)
+    private JwtParser PARSER;
+
+    //필터에서 isValid, getAuthentication 이 같은 토큰을 연달아 검증하므로 서명 검증 결과를 보관
+    //키는 토큰 원문 대신 SHA-256 (메모리에 인증 정보를 그대로 두지 않고 키 크기도 일정)
+    //항목은 토큰의 exp 까지만 사용
+    //모든 인증 요청이 거치므로 조회에 잠금이 없는 ConcurrentHashMap 사용 (LRU 순서 관리 없음)
+    //가득 차면 한 스레드만 정리 (만료 항목 제거 -> 그래도 많으면 임의 항목 제거), 정리 중에는 새 항목을 넣지 않음
+    @Getter(AccessLevel.NONE)
+    private ConcurrentHashMap<String, VerifiedToken> VERIFIED_TOKENS;
+    @Getter(AccessLevel.NONE)
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try{
+            return MessageDigest.getInstance("SHA-256");
+        }catch(NoSuchAlgorithmException e){
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+        }
+    });
+
     @PostConstruct
     private void setSecretKey() {
         if(KEY.length() < 32){
@@ -50,10 +85,18 @@ public class JwtTokenProvider {
         }
 
         SECRET_KEY = Keys.hmacShaKeyFor(KEY.getBytes());
+        PARSER = Jwts.parser()
+                .verifyWith(SECRET_KEY)
+                .build();
+        VERIFIED_TOKENS = VERIFIED_CACHE_SIZE > 0 ? new ConcurrentHashMap<>(VERIFIED_CACHE_SIZE * 2) : null;
     }
 
     public Cookie createJwtCookie(String email, Role role){
-        String jwtToken = createToken(email, role);
+        return createJwtCookie(null, email, role);
+    }
+
+    public Cookie createJwtCookie(Long userId, String email, Role role){
+        String jwtToken = createToken(userId, email, role);
         Cookie cookie = new Cookie(JWT_COOKIE_NAME, jwtToken);
         cookie.setHttpOnly(false);  // 클라이언트에서 JavaScript로 접근 불가
 //        cookie.setSecure(true);    // HTTPS에서만 전송
@@ -64,6 +107,12 @@ public class JwtTokenProvider {
     }
 
     public String createToken(String email, Role role) {
+        return createToken(null, email, role);
+    }
+
+    //회원 PK 를 userId 클레임으로 넣어 두면 쓰기 요청마다 이메일로 회원을 조회하지 않아도 됨 (SecurityUtil.currentUserId)
+    //userId 가 null 이면 클레임 생략
+    public String createToken(Long userId, String email, Role role) {
         Date beginDate = new Date();
         Date endDate = new Date(beginDate.getTime() + ACCESS_EXPIRE_TIME);
 
@@ -73,6 +122,7 @@ public class JwtTokenProvider {
                 .and()
                 .subject(email)
                 .claim(KEY_ROLE, "ROLE_"+role)
+                .claim(KEY_USER_ID, userId)
                 .issuedAt(beginDate)
                 .expiration(endDate)
                 .signWith(new SecretKeySpec(SECRET_KEY.getEncoded(), ALGORITHM))
@@ -120,18 +170,7 @@ public class JwtTokenProvider {
 
 
     public boolean validateToken(String token) {
-        try {
-
-            Claims payload = Jwts.parser()
-                    .verifyWith(SECRET_KEY)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        return tokenToClaims(token) != null;
     }
 
     public Authentication getAuthentication(String token) {
@@ -142,21 +181,77 @@ public class JwtTokenProvider {
         List<SimpleGrantedAuthority> authorities = getAuthorities(claims);
         log.info("authorities : {}", authorities);
 
-        User principal = new User(claims.getSubject(), "",authorities);
+        JwtPrincipal principal = new JwtPrincipal(getUserId(claims), claims.getSubject(), authorities);
         return new UsernamePasswordAuthenticationToken(principal, token, authorities);
     }
 
+    //JSON 숫자라 Integer/Long 어느 쪽으로든 읽힐 수 있음
+    private Long getUserId(Claims claims) {
+        Object userId = claims.get(KEY_USER_ID);
+        return userId instanceof Number number ? number.longValue() : null;
+    }
+
     private List<SimpleGrantedAuthority> getAuthorities(Claims claims) {
         return Collections.singletonList(new SimpleGrantedAuthority(
                 claims.get(KEY_ROLE).toString()));
     }
 
+    //서명/만료 검증을 통과한 claims, 아니면 null
+    //Claims 는 읽기 전용이라 캐시된 객체를 여러 요청이 같이 써도 됨
     private Claims tokenToClaims(String token){
+        if(token == null){
+            return null;
+        }
+        if(VERIFIED_TOKENS == null){
+            return parseClaims(token);
+        }
+
+        String key = digest(token);
+        VerifiedToken verified = VERIFIED_TOKENS.get(key);
+        if(verified != null){
+            if(System.currentTimeMillis() < verified.expiresAt()){
+                return verified.claims();
+            }
+            VERIFIED_TOKENS.remove(key, verified);
+            return null;
+        }
+
+        Claims claims = parseClaims(token);
+        //exp 가 없는 토큰은 언제까지 유효한지 알 수 없으므로 캐시하지 않음
+        if(claims != null && claims.getExpiration() != null){
+            if(VERIFIED_TOKENS.size() < VERIFIED_CACHE_SIZE){
+                VERIFIED_TOKENS.put(key, new VerifiedToken(claims, claims.getExpiration().getTime()));
+            }else{
+                evictVerifiedTokens();
+            }
+        }
+        return claims;
+    }
+
+    //만료 항목을 먼저 지우고, 그래도 최대 크기의 3/4 를 넘으면 넘는 만큼 임의로 제거
+    //(한 번 정리하면 한동안 다시 정리하지 않도록 여유를 남김)
+    private void evictVerifiedTokens(){
+        if(!evicting.compareAndSet(false, true)){
+            return;
+        }
+        try{
+            long now = System.currentTimeMillis();
+            VERIFIED_TOKENS.values().removeIf(verified -> verified.expiresAt() <= now);
+
+            int target = VERIFIED_CACHE_SIZE * 3 / 4;
+            Iterator<String> keys = VERIFIED_TOKENS.keySet().iterator();
+            while(VERIFIED_TOKENS.size() > target && keys.hasNext()){
+                keys.next();
+                keys.remove();
+            }
+        }finally{
+            evicting.set(false);
+        }
+    }
+
+    private Claims parseClaims(String token){
         try {
-            return Jwts.parser()
-                    .verifyWith(SECRET_KEY)
-                    .build()
-                    .parseSignedClaims(token)
+            return PARSER.parseSignedClaims(token)
                     .getPayload();
 
         } catch (JwtException | IllegalArgumentException e) {
@@ -164,6 +259,14 @@ public class JwtTokenProvider {
         }
     }
 
+    private static String digest(String token){
+        MessageDigest messageDigest = SHA_256.get();
+        return Base64.getEncoder().encodeToString(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private record VerifiedToken(Claims claims, long expiresAt) {
+    }
+
 
 
 }
@@ -13,13 +13,25 @@ public class AuthRepository {
     @PersistenceContext
     private EntityManager entityManager;
 
+    //email_hash 로 조회, 못 찾으면 이관 전 데이터 (기존 암호문) 로 한 번 더
     public Users findByEmail(String email) {
-        String encryptedEmail = AesUtil.encrypt(email);
-        String jpql = "SELECT u FROM Users u WHERE u.email = :email";
+        String jpql = "SELECT u FROM Users u WHERE u.emailHash = :emailHash";
 
         try {
             return entityManager.createQuery(jpql, Users.class)
-                    .setParameter("email", encryptedEmail)
+                    .setParameter("emailHash", AesUtil.blindIndex(email))
+                    .getSingleResult();
+        } catch (NoResultException e) {
+            return findLegacyByEmail(email);
+        }
+    }
+
+    private Users findLegacyByEmail(String email) {
+        String jpql = "SELECT u FROM Users u WHERE u.emailHash IS NULL AND u.email = :email";
+
+        try {
+            return entityManager.createQuery(jpql, Users.class)
+                    .setParameter("email", AesUtil.encryptLegacy(email))
                     .getSingleResult();
         } catch (NoResultException e) {
             return null;
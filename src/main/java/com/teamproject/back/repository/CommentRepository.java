@@ -1,22 +1,35 @@
 package com.teamproject.back.repository;
 
+import com.teamproject.back.dto.ReviewCursor;
+import com.teamproject.back.dto.ReviewSort;
 import com.teamproject.back.entity.Comment;
 import com.teamproject.back.entity.Item;
 import com.teamproject.back.entity.Users;
 import jakarta.persistence.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Repository
 @Slf4j
 public class CommentRepository {
 
+    //하위 댓글 삭제 시 IN 목록 한 번에 넣는 id 수
+    private static final int DELETE_CHUNK_SIZE = 1000;
+    //경로에 추가되는 id 최대 길이 (Long 최대 19자리 + "/")
+    private static final int MAX_ID_LENGTH = 20;
+    //별점 범위 (Item.star1Count ~ star5Count)
+    private static final int MIN_RATING = 1;
+    private static final int MAX_RATING = 5;
+
     @PersistenceContext
     private EntityManager em;
 
@@ -56,6 +69,73 @@ public class CommentRepository {
                 .getResultList();
     }
 
+    //상품의 댓글 + 답글 전체를 작성자와 함께 한 번에 조회 (트리 구성은 service 에서)
+    //부모 댓글은 같은 결과 안에 있으므로 parentComment 는 추가 쿼리 없이 채워짐
+    @Transactional(readOnly = true)
+    public List<Comment> findThreadByItemId(Integer itemId){
+        String jpql = "SELECT c FROM Comment c " +
+                "LEFT JOIN FETCH c.users " +
+                "WHERE c.item.id = :itemId " +
+                "ORDER BY c.id";
+
+        return em.createQuery(jpql, Comment.class)
+                .setParameter("itemId", itemId)
+                .getResultList();
+    }
+
+    //상품 리뷰(부모 댓글) 키셋 페이지네이션
+    //(item_id, parentComment_id, 정렬 키, id) 인덱스에서 커서 다음 위치부터 limit 개만 읽으므로
+    //리뷰가 몇 개든 페이지 비용이 같음
+    @Transactional(readOnly = true)
+    public List<Comment> findReviewsByCursor(Integer itemId, ReviewSort sort, ReviewCursor cursor, int limit){
+        String jpql = "SELECT c FROM Comment c " +
+                "LEFT JOIN FETCH c.users " +
+                "WHERE c.item.id = :itemId " +
+                "AND c.parentComment IS NULL " +
+                (sort == ReviewSort.RATING_HIGH || sort == ReviewSort.RATING_LOW ? "AND c.rating IS NOT NULL " : "") +
+                (cursor == null ? "" : "AND " + reviewSeekConditionOf(sort) + " ") +
+                "ORDER BY " + reviewOrderByOf(sort);
+
+        TypedQuery<Comment> query = em.createQuery(jpql, Comment.class)
+                .setParameter("itemId", itemId);
+        if(cursor != null){
+            query.setParameter("id", cursor.getId());
+            if(cursor.getKey() != null){
+                query.setParameter("key", cursor.getKey());
+            }
+        }
+
+        return query.setMaxResults(limit)
+                .getResultList();
+    }
+
+    //정렬 키가 같은 리뷰끼리의 순서를 고정하기 위해 항상 id 를 마지막 정렬 기준으로 사용
+    private String reviewOrderByOf(ReviewSort sort){
+        switch(sort){
+            case RATING_HIGH:
+                return "c.rating DESC, c.id DESC";
+            case RATING_LOW:
+                return "c.rating ASC, c.id ASC";
+            case LIKES:
+                return "c.likeCount DESC, c.id DESC";
+            default:
+                return "c.id DESC";
+        }
+    }
+
+    private String reviewSeekConditionOf(ReviewSort sort){
+        switch(sort){
+            case RATING_HIGH:
+                return "(c.rating < :key OR (c.rating = :key AND c.id < :id))";
+            case RATING_LOW:
+                return "(c.rating > :key OR (c.rating = :key AND c.id > :id))";
+            case LIKES:
+                return "(c.likeCount < :key OR (c.likeCount = :key AND c.id < :id))";
+            default:
+                return "c.id < :id";
+        }
+    }
+
     @Transactional(readOnly = true)
     public List<Comment> findChildCommentsByIdWithUsers(Long id){
         //JOIN FETCH -> 해당 Comment의 users가 없어서 오류나는 것 같음
@@ -70,51 +150,48 @@ public class CommentRepository {
                 .getResultList();
     }
 
+    //작성자는 id 로 프록시만 연결 (회원 SELECT 없음)
     @Transactional
-    public Comment save(Integer itemId, Comment comment){
-        Item item = em.find(Item.class, itemId);
-        if(item == null){
+    public Comment save(Integer itemId, Long userId, Comment comment){
+        //상품 존재 여부는 집계 갱신 결과로 확인
+        //(상품 엔티티와 상품의 댓글 컬렉션을 불러오지 않음)
+        if(updateItemStats(itemId, new ItemStatsDelta().comment(comment.getRating(), 1)) == 0){
             return null;
         }
 
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        Users user = em.createQuery("SELECT u FROM Users u WHERE u.email = :email", Users.class)
-                .setParameter("email", email)
-                .getSingleResult();
-
-        comment.fetchUsers(user);
-        comment.fetchItem(item);
+        comment.setUsers(em.getReference(Users.class, userId));
+        comment.setItem(em.getReference(Item.class, itemId));
         em.persist(comment);
+        //IDENTITY 라 persist 시점에 id 가 정해지므로 바로 경로 지정 (flush 때 함께 반영)
+        comment.assignPath();
         em.flush();
         return comment;
     }
 
     @Transactional
-    public Comment saveReply(Long parentCommentId, String email,Comment childComment){
-//        String jpql = "SELECT c FROM Comment c WHERE c.parentComment.id = :parentCommentId";
-//        String jpql2 = "SELECT c FROM Comment c FETCH JOIN c.item WHERE c.parentComment.id = :parentCommentId";
-//        Comment parentComment = em.createQuery(jpql, Comment.class)
-//                .setParameter("parentCommentId", parentCommentId)
-//                .getSingleResult();
-        String jpql = "SELECT u FROM Users u WHERE u.email = :email";
-        Users users = em.createQuery(jpql, Users.class)
-                .setParameter("email", email)
-                .getSingleResult();
-
-        if(users == null){
-            log.error("존재하지 않는 회원");
-            return null;
-        }
-
+    public Comment saveReply(Long parentCommentId, Long userId, Comment childComment){
         Comment parentComment = em.find(Comment.class, parentCommentId);
         if(parentComment == null){
             log.error("존재하지 않는 부모 댓글");
             return null;
         }
 
-        childComment.fetchUsers(users);
-        childComment.fetchParentComment(parentComment);
+        //경로 길이 제한 (답글 깊이 제한)
+        if(parentComment.getPath() != null
+                && parentComment.getPath().length() + MAX_ID_LENGTH > Comment.MAX_PATH_LENGTH){
+            log.error("답글 깊이 초과 : {}", parentCommentId);
+            return null;
+        }
+
+        //부모의 답글 컬렉션은 건드리지 않음 (형제 답글 전체 로딩 방지)
+        childComment.setUsers(em.getReference(Users.class, userId));
+        childComment.setItem(parentComment.getItem());
+        childComment.setParentComment(parentComment);
+        if(childComment.getItem() != null){
+            updateItemStats(childComment.getItem().getId(), new ItemStatsDelta().comment(childComment.getRating(), 1));
+        }
         em.persist(childComment);
+        childComment.assignPath();
         em.flush();
         return childComment;
     }
@@ -122,16 +199,33 @@ public class CommentRepository {
 
     @Transactional
     public Comment update(Comment comment){
+        Object[] before = findRatingAndItemId(comment.getId());
+        if(before == null){
+            return null;
+        }
+
+        //rating 이 없으면 기존 평점 유지
         String jpql = "UPDATE Comment c SET " +
-                "c.content = :content WHERE " +
+                "c.content = :content, " +
+                "c.rating = COALESCE(:rating, c.rating) WHERE " +
                 "c.id = :id";
 
         int count = em.createQuery(jpql)
                 .setParameter("content", comment.getContent())
+                .setParameter("rating", comment.getRating())
                 .setParameter("id", comment.getId())
                 .executeUpdate();
 
         if(count == 1){
+            Integer beforeRating = (Integer) before[0];
+            Integer afterRating = comment.getRating() != null ? comment.getRating() : beforeRating;
+            Integer itemId = (Integer) before[1];
+            if(itemId != null && !Objects.equals(beforeRating, afterRating)){
+                updateItemStats(itemId, new ItemStatsDelta()
+                        .rating(beforeRating, -1)
+                        .rating(afterRating, 1));
+            }
+
             em.flush();
             em.clear();
             return comment;
@@ -144,60 +238,317 @@ public class CommentRepository {
 
     @Transactional
     public int delete(Long id){
+        Object[] before = findRatingAndItemId(id);
+        if(before == null){
+            return 0;
+        }
+
+        int count;
         try{
             String deleteById = "DELETE FROM Comment c " +
                     "WHERE c.id = :id";
-            return em.createQuery(deleteById)
+            count = em.createQuery(deleteById)
                     .setParameter("id", id)
                     .executeUpdate();
         }catch(Exception e){
             log.error("댓글 삭제 실패");
             return 0;
         }
+
+        Integer rating = (Integer) before[0];
+        Integer itemId = (Integer) before[1];
+        if(count == 1 && itemId != null){
+            updateItemStats(itemId, new ItemStatsDelta().comment(rating, -1));
+        }
+        return count;
     }
 
+    //댓글 + 모든 하위 답글 삭제 (깊이 제한 없음, 한 트랜잭션)
+    //1) 경로 접두어 조회 한 번으로 하위 댓글 id/평점/상품을 모두 조회
+    //   (본인이나 하위 답글 중 경로가 없는 댓글이 있으면 재귀 CTE 로 조회)
+    //2) 부모 참조 해제 -> 좋아요 삭제 -> 댓글 삭제를 각각 IN 목록 한 문장으로 실행
+    //   (같은 문장 안에서 부모가 자식보다 먼저 지워져도 FK 위반이 나지 않도록 부모 참조를 먼저 끊음)
+    //3) 상품 집계는 상품별로 한 번만 감소
+    //댓글 수와 상관없이 문장 수가 일정 (IN 목록은 DELETE_CHUNK_SIZE 개씩 나눔)
     @Transactional
-    public List<Comment> findChildCommentById(Long id){
-        String findChildIdById = "SELECT c FROM Comment c " +
-                            "JOIN FETCH c.parentComment cc " +
-                            "WHERE cc.id = :id";
+    public int deleteSubtree(Long id){
+        String path = findPathById(id);
+        List<Object[]> rows = hasCompletePaths(path) ? findSubtreeRowsByPath(path) : findSubtreeRowsRecursive(id);
+        if(rows.isEmpty()){
+            return 0;
+        }
 
-        try {
+        List<Long> ids = new ArrayList<>(rows.size());
+        Map<Integer, ItemStatsDelta> statsByItem = new HashMap<>();
+        for(Object[] row : rows){
+            ids.add(((Number) row[0]).longValue());
+            if(row[2] == null){
+                continue;
+            }
+            Integer rating = row[1] == null ? null : ((Number) row[1]).intValue();
+            statsByItem.computeIfAbsent(((Number) row[2]).intValue(), itemId -> new ItemStatsDelta())
+                    .comment(rating, -1);
+        }
 
-            return em.createQuery(findChildIdById, Comment.class)
-                    .setParameter("id", id)
-                    .getResultList();
+        List<List<Long>> chunks = new ArrayList<>();
+        for(int from = 0; from < ids.size(); from += DELETE_CHUNK_SIZE){
+            chunks.add(ids.subList(from, Math.min(from + DELETE_CHUNK_SIZE, ids.size())));
+        }
 
-        } catch (Exception e) {
-            log.error("자식 댓글 조회 실패");
-            return null;
+        for(List<Long> chunk : chunks){
+            em.createQuery("UPDATE Comment c SET c.parentComment = NULL WHERE c.id IN :ids")
+                    .setParameter("ids", chunk)
+                    .executeUpdate();
+        }
+        for(List<Long> chunk : chunks){
+            em.createQuery("DELETE FROM Likes l WHERE l.comment.id IN :ids")
+                    .setParameter("ids", chunk)
+                    .executeUpdate();
+        }
+        int count = 0;
+        for(List<Long> chunk : chunks){
+            count += em.createQuery("DELETE FROM Comment c WHERE c.id IN :ids")
+                    .setParameter("ids", chunk)
+                    .executeUpdate();
         }
+
+        statsByItem.forEach(this::updateItemStats);
+
+        //벌크 연산으로 지운 댓글이 영속성 컨텍스트에 남지 않도록
+        em.clear();
+        return count;
+    }
+
+    private List<Object[]> findSubtreeRowsByPath(String path){
+        String jpql = "SELECT c.id, c.rating, c.item.id FROM Comment c " +
+                "WHERE c.path LIKE :prefix";
+
+        return em.createQuery(jpql, Object[].class)
+                .setParameter("prefix", path + "%")
+                .getResultList();
     }
 
+    //path 아래 하위 답글이 모두 경로를 가지고 있는지 (path 가 null 이면 false)
+    //경로는 부모 경로가 있어야만 채워지므로, 경로 없는 하위 답글이 있다면 그중 가장 위의 답글은
+    //경로가 있는 부모 (= path 로 시작하는 경로) 를 가짐 -> 그런 답글이 하나라도 있는지만 확인
+    //이관 중 (루트는 채워졌지만 답글은 아직인 상태) 이나 경로 길이 초과로 경로가 없는 답글이 있으면 false
+    private boolean hasCompletePaths(String path){
+        if(path == null){
+            return false;
+        }
+        String jpql = "SELECT c.id FROM Comment c " +
+                "JOIN c.parentComment p " +
+                "WHERE c.path IS NULL AND p.path LIKE :prefix";
 
+        return em.createQuery(jpql, Long.class)
+                .setParameter("prefix", path + "%")
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    //MySQL 은 재귀 깊이가 cte_max_recursion_depth (기본 1000) 를 넘으면 실패 (경로 이관 후에는 사용하지 않음)
+    @SuppressWarnings("unchecked")
+    private List<Object[]> findSubtreeRowsRecursive(Long id){
+        String sql = "WITH RECURSIVE subtree (id, rating, item_id) AS (" +
+                "SELECT c.id, c.rating, c.item_id FROM comment c WHERE c.id = :id " +
+                "UNION ALL " +
+                "SELECT c.id, c.rating, c.item_id FROM comment c " +
+                "JOIN subtree s ON c.parent_comment_id = s.id" +
+                ") SELECT id, rating, item_id FROM subtree";
+
+        return em.createNativeQuery(sql)
+                .setParameter("id", id)
+                .getResultList();
+    }
 
     @Transactional(readOnly = true)
-    public Integer findAverageRating(Integer itemId){
-        String findAllRatingJpql = "SELECT AVG(c.rating) FROM Comment c " +
-                                   "JOIN c.item i " +
-                                   "WHERE i.id = :itemId";
+    public String findPathById(Long id){
+        String jpql = "SELECT c.path FROM Comment c WHERE c.id = :id";
 
-        try{
-            Double averageRating = em.createQuery(findAllRatingJpql, Double.class)
-                                    .setParameter("itemId", itemId)
-                                    .getSingleResult();
-            if(averageRating == null){
-                log.info("평점 집계 실패");
-                return null;
+        List<String> paths = em.createQuery(jpql, String.class)
+                .setParameter("id", id)
+                .getResultList();
+        return paths.isEmpty() ? null : paths.get(0);
+    }
+
+    //조상 댓글 (루트부터 순서대로), 경로의 id 로 PK 조회 한 번
+    @Transactional(readOnly = true)
+    public List<Comment> findAncestorsByPath(String path){
+        List<Long> ids = Comment.ancestorIdsOf(path);
+        if(ids.isEmpty()){
+            return new ArrayList<>();
+        }
+
+        String jpql = "SELECT c FROM Comment c " +
+                "LEFT JOIN FETCH c.users " +
+                "WHERE c.id IN :ids " +
+                "ORDER BY c.depth";
+
+        return em.createQuery(jpql, Comment.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    //본인 + 모든 하위 답글, 부모가 항상 자식보다 먼저 나옴
+    //경로가 모두 있으면 경로 접두어 조회 (경로 순), 아니면 재귀 CTE 로 id 를 찾은 뒤 id 순으로 조회
+    //없는 댓글이면 빈 목록
+    @Transactional(readOnly = true)
+    public List<Comment> findSubtree(Long id){
+        String path = findPathById(id);
+        if(hasCompletePaths(path)){
+            String jpql = "SELECT c FROM Comment c " +
+                    "LEFT JOIN FETCH c.users " +
+                    "WHERE c.path LIKE :prefix " +
+                    "ORDER BY c.path";
+
+            return em.createQuery(jpql, Comment.class)
+                    .setParameter("prefix", path + "%")
+                    .getResultList();
+        }
+
+        List<Long> ids = new ArrayList<>();
+        for(Object[] row : findSubtreeRowsRecursive(id)){
+            ids.add(((Number) row[0]).longValue());
+        }
+        if(ids.isEmpty()){
+            return new ArrayList<>();
+        }
+
+        //답글은 부모보다 나중에 작성되므로 id 순이면 부모가 먼저
+        String jpql = "SELECT c FROM Comment c " +
+                "LEFT JOIN FETCH c.users " +
+                "WHERE c.id IN :ids " +
+                "ORDER BY c.id";
+
+        return em.createQuery(jpql, Comment.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    //경로가 없는 댓글 채우기 (기존 데이터 이관용)
+    //루트 댓글, 그다음 부모 경로가 채워진 답글 순으로 limit 개씩 처리 -> 반복 호출하면 위 단계부터 차례로 채워짐
+    //경로 길이 초과로 채우지 못한 댓글은 failedIds 에 추가하고 다음 호출부터 제외 (그 하위 답글도 경로 없이 남음)
+    //처리한 댓글 수 (실패 포함) 반환, 더 처리할 것이 없으면 0
+    @Transactional
+    public int backfillPaths(int limit, Set<Long> failedIds){
+        String excludeFailed = failedIds.isEmpty() ? "" : "AND c.id NOT IN :failedIds ";
+
+        TypedQuery<Comment> rootQuery = em.createQuery("SELECT c FROM Comment c " +
+                        "WHERE c.path IS NULL AND c.parentComment IS NULL " +
+                        excludeFailed +
+                        "ORDER BY c.id", Comment.class)
+                .setMaxResults(limit);
+        if(!failedIds.isEmpty()){
+            rootQuery.setParameter("failedIds", failedIds);
+        }
+        List<Comment> comments = rootQuery.getResultList();
+
+        if(comments.isEmpty()){
+            TypedQuery<Comment> replyQuery = em.createQuery("SELECT c FROM Comment c " +
+                            "JOIN FETCH c.parentComment p " +
+                            "WHERE c.path IS NULL AND p.path IS NOT NULL " +
+                            excludeFailed +
+                            "ORDER BY c.id", Comment.class)
+                    .setMaxResults(limit);
+            if(!failedIds.isEmpty()){
+                replyQuery.setParameter("failedIds", failedIds);
             }
+            comments = replyQuery.getResultList();
+        }
+
+        for(Comment comment : comments){
+            if(!comment.assignPath()){
+                log.error("댓글 경로 길이 초과 : {}", comment.getId());
+                failedIds.add(comment.getId());
+            }
+        }
+        em.flush();
+        em.clear();
+        return comments.size();
+    }
 
-            return (int) averageRating.doubleValue();
+    private Object[] findRatingAndItemId(Long id){
+        String jpql = "SELECT c.rating, c.item.id FROM Comment c " +
+                      "WHERE c.id = :id";
+
+        try{
+            return em.createQuery(jpql, Object[].class)
+                    .setParameter("id", id)
+                    .getSingleResult();
         }catch(NoResultException e){
-            log.error("평점이 존재하지 않습니다");
             return null;
         }
     }
 
+    //Item 평점/리뷰/별점별 집계 컬럼 갱신
+    //동시에 댓글이 작성돼도 갱신이 유실되지 않도록 엔티티를 읽어 수정하지 않고 UPDATE 문으로 바로 증감
+    private int updateItemStats(Integer itemId, ItemStatsDelta delta){
+        StringBuilder updateCount = new StringBuilder("UPDATE Item i SET " +
+                "i.ratingSum = i.ratingSum + :ratingSumDelta, " +
+                "i.ratingCount = i.ratingCount + :ratingCountDelta, " +
+                "i.commentCount = i.commentCount + :commentCountDelta");
+        for(int star = MIN_RATING; star <= MAX_RATING; star++){
+            updateCount.append(", i.star").append(star).append("Count = i.star").append(star)
+                    .append("Count + :star").append(star).append("Delta");
+        }
+        updateCount.append(" WHERE i.id = :itemId");
+
+        Query query = em.createQuery(updateCount.toString())
+                .setParameter("ratingSumDelta", delta.ratingSum)
+                .setParameter("ratingCountDelta", delta.ratingCount)
+                .setParameter("commentCountDelta", delta.commentCount)
+                .setParameter("itemId", itemId);
+        for(int star = MIN_RATING; star <= MAX_RATING; star++){
+            query.setParameter("star" + star + "Delta", delta.starCounts[star]);
+        }
+
+        int count = query.executeUpdate();
+        if(count == 0){
+            return 0;
+        }
+
+        //SET 절 평가 순서가 DB 마다 달라서 평균은 갱신된 합계/개수로 따로 계산
+        String updateAverage = "UPDATE Item i SET " +
+                "i.ratingAverage = CASE WHEN i.ratingCount = 0 THEN 0.0 " +
+                "ELSE CAST(i.ratingSum AS Double) / i.ratingCount END " +
+                "WHERE i.id = :itemId";
+
+        em.createQuery(updateAverage)
+                .setParameter("itemId", itemId)
+                .executeUpdate();
+
+        return count;
+    }
+
+    //상품 집계 증감 (평점 합/수, 댓글 수, 별점별 개수)
+    //sign : 1 추가, -1 삭제
+    private static final class ItemStatsDelta {
+
+        private long ratingSum;
+        private int ratingCount;
+        private int commentCount;
+        private final int[] starCounts = new int[MAX_RATING + 1];
+
+        private ItemStatsDelta comment(Integer rating, int sign){
+            commentCount += sign;
+            return rating(rating, sign);
+        }
+
+        //평점 없는 댓글(답글)은 평점 집계에서 제외, 1~5 밖의 평점은 별점별 개수에서만 제외
+        private ItemStatsDelta rating(Integer rating, int sign){
+            if(rating == null){
+                return this;
+            }
+            ratingSum += (long) rating * sign;
+            ratingCount += sign;
+            if(rating >= MIN_RATING && rating <= MAX_RATING){
+                starCounts[rating] += sign;
+            }
+            return this;
+        }
+    }
+
     @Transactional(readOnly = true)
     public List<Long> findIdsByItemId(Integer itemId){
         String jpql = "SELECT c.id FROM Comment c " +
@@ -1,5 +1,8 @@
 package com.teamproject.back.repository;
 
+import com.teamproject.back.dto.ItemCursor;
+import com.teamproject.back.dto.ItemSort;
+import com.teamproject.back.dto.ItemSummaryDto;
 import com.teamproject.back.entity.Item;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -19,6 +22,12 @@ import java.util.List;
 public class ItemRepository {
 
 
+    //목록 조회는 엔티티 대신 필요한 컬럼만 ItemSummaryDto 로 바로 조회
+    private static final String SELECT_ITEM_SUMMARY = "SELECT new com.teamproject.back.dto.ItemSummaryDto(" +
+            "i.id, i.itemName, i.itemDesc, i.itemImg, i.itemStock, i.itemPrice, i.itemOriginPrice, " +
+            "i.itemBrand, i.category, i.ratingAverage, i.commentCount) " +
+            "FROM Item i ";
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -37,258 +46,153 @@ public class ItemRepository {
 
     @Transactional(readOnly = true)
     public Item findById(int id){
-//        String jpql = "SELECT i FROM Item i WHERE i.id = :id";
-
-        String jpql = "SELECT i, COALESCE(AVG(c.rating), 0) AS avgRating, COALESCE(COUNT(c.id), 0) AS commentCount " +
-                      "FROM Item i " +
-                      "LEFT JOIN Comment c " +
-                      "ON i.id = c.item.id " +
-                      "WHERE i.id = :id " +
-                      "GROUP BY i.id";
-
-        try{
-            Object[] result = entityManager.createQuery(jpql, Object[].class)
-                    .setParameter("id", id)
-                    .getSingleResult();
-
-            Item item = (Item) result[0];
-            item.setAverageRating((int) ((double)result[1]));
-            item.setCommentCount((int) (long)result[2]);
-
-            return item;
-        }catch (NoResultException e) {
-            return null;
-        }
-
+        //평점, 댓글 수는 item 테이블의 집계 컬럼에서 함께 조회
+        return entityManager.find(Item.class, id);
     }
 
     //최신순
     @Transactional(readOnly = true)
-    public List<Item> findItemsWithPagination(int size, int page){
-//        String jpql = "SELECT i FROM Item i";
-        String jpql = "SELECT i, COALESCE(AVG(c.rating), 0) AS avgRating, COALESCE(COUNT(c.id), 0) AS commentCount " +
-                "FROM Item i " +
-                "LEFT JOIN Comment c ON i.id = c.item.id " +
-                "GROUP BY i.id";
-
-        try{
-            List<Object[]> results = entityManager.createQuery(jpql, Object[].class)
-                    .setFirstResult((page-1) * size)
-                    .setMaxResults(size)
-                    .getResultList();
-
-            List<Item> items = new ArrayList<>();
-            for(Object[] result : results){
-                Item item = (Item) result[0];
-                item.setAverageRating((int) ((double)result[1]));
-                item.setCommentCount((int) (long)result[2]);
-                items.add(item);
-            }
-
-            if(items.isEmpty()){
-                return null;
-            }
-            return items;
-        }catch (NoResultException e) {
-            return null;
-        }
+    public List<ItemSummaryDto> findItemsWithPagination(int size, int page){
+        return findItemPage(ItemSort.NEW, size, page);
     }
 
     //가격 오름차순
     @Transactional(readOnly = true)
-    public List<Item> findItemsSortedByPriceAsc(int size, int page){
-//        String jpql = "SELECT i FROM Item i " +
-//                "ORDER BY i.itemPrice ASC";
+    public List<ItemSummaryDto> findItemsSortedByPriceAsc(int size, int page){
+        return findItemPage(ItemSort.CHEAP, size, page);
+    }
 
+    //가격 내림차순
+    @Transactional(readOnly = true)
+    public List<ItemSummaryDto> findItemsSortedByPriceDesc(int size, int page){
+        return findItemPage(ItemSort.EXPENSIVE, size, page);
+    }
 
-        String jpql = "SELECT i, COALESCE(AVG(c.rating), 0) AS avgRating, COALESCE(COUNT(c.id), 0) AS commentCount " +
-                      "FROM Item i " +
-                      "LEFT JOIN Comment c ON i.id = c.item.id " +
-                      "GROUP BY i.id " +
-                      "ORDER BY i.itemPrice ASC";
+    //추천순
+    //평점이 없는 상품은 rating_average 가 0 이므로 자연스럽게 뒤로 정렬됨
+    @Transactional(readOnly = true)
+    public List<ItemSummaryDto> findItemsSortedByRecommendDesc(int size, int page) {
+        return findItemPage(ItemSort.RECOMMEND, size, page);
+    }
 
-        try{
-            List<Object[]> results = entityManager.createQuery(jpql, Object[].class)
-                    .setFirstResult((page-1) * size)
-                    .setMaxResults(size)
-                    .getResultList();
-
-            List<Item> items = new ArrayList<>();
-            for(Object[] result : results){
-                Item item = (Item) result[0];
-                item.setAverageRating((int) ((double)result[1]));
-                item.setCommentCount((int) (long)result[2]);
-                items.add(item);
-            }
+    //리뷰순
+    @Transactional(readOnly = true)
+    public List<ItemSummaryDto> findItemsSortedByComment(int size, int page){
+        return findItemPage(ItemSort.REVIEW, size, page);
+    }
 
-            if(items.isEmpty()){
-                return null;
+    //커서(키셋) 페이지네이션
+    //OFFSET 없이 (정렬 키, id) 인덱스에서 커서 다음 위치부터 읽으므로 몇 번째 페이지든 비용이 같음
+    //cursor 가 null 이면 첫 페이지
+    @Transactional(readOnly = true)
+    public List<ItemSummaryDto> findItemsByCursor(ItemSort sort, ItemCursor cursor, int limit){
+        String jpql = SELECT_ITEM_SUMMARY +
+                      (cursor == null ? "" : "WHERE " + seekConditionOf(sort) + " ") +
+                      "ORDER BY " + orderByOf(sort);
+
+        TypedQuery<ItemSummaryDto> query = entityManager.createQuery(jpql, ItemSummaryDto.class);
+        if(cursor != null){
+            query.setParameter("id", cursor.getId());
+            if(cursor.getKey() != null){
+                query.setParameter("key", cursor.getKey());
             }
-            return items;
-        }catch (NoResultException e) {
-            return null;
         }
+
+        return query.setMaxResults(limit)
+                .getResultList();
     }
 
-    //가격 내림차순
+    //검색 색인 전체 적재용
     @Transactional(readOnly = true)
-    public List<Item> findItemsSortedByPriceDesc(int size, int page){
-//        String jpql = "SELECT i FROM Item i " +
-//                "ORDER BY i.itemPrice DESC";
-
-        String jpql = "SELECT i, COALESCE(AVG(c.rating), 0) AS avgRating, COALESCE(COUNT(c.id), 0) AS commentCount " +
-                       "FROM Item i " +
-                       "LEFT JOIN Comment c ON i.id = c.item.id " +
-                       "GROUP BY i.id " +
-                       "ORDER BY i.itemPrice DESC";
+    public List<ItemSummaryDto> findAllItemSummaries(){
+        return entityManager.createQuery(SELECT_ITEM_SUMMARY + "ORDER BY i.id", ItemSummaryDto.class)
+                .getResultList();
+    }
 
+    //검색 색인 증분 반영용, 없으면 null
+    @Transactional(readOnly = true)
+    public ItemSummaryDto findItemSummaryById(int id){
         try{
-            List<Object[]> results = entityManager.createQuery(jpql, Object[].class)
-                    .setFirstResult((page-1) * size)
-                    .setMaxResults(size)
-                    .getResultList();
-
-            List<Item> items = new ArrayList<>();
-            for(Object[] result : results){
-                Item item = (Item) result[0];
-                item.setAverageRating((int) ((double)result[1]));
-                item.setCommentCount((int) (long)result[2]);
-                items.add(item);
-            }
-
-            if(items.isEmpty()){
-                return null;
-            }
-            return items;
-        }catch (NoResultException e) {
+            return entityManager.createQuery(SELECT_ITEM_SUMMARY + "WHERE i.id = :id", ItemSummaryDto.class)
+                    .setParameter("id", id)
+                    .getSingleResult();
+        }catch(NoResultException e){
             return null;
         }
     }
 
-    @Transactional(readOnly = true)
-    public List<Item> findItemsSortedByRecommendDesc(int size, int page) {
-        String jpql = "SELECT i, COALESCE(AVG(c.rating), 0) AS avgRating, COALESCE(COUNT(c.id), 0) AS commentCount " +
-                      "FROM Item i " +
-                      "LEFT JOIN Comment c ON i.id = c.item.id " +
-                      "GROUP BY i.id " +
-                      "ORDER BY " +
-                      "CASE WHEN AVG(c.rating) IS NULL THEN 1 ELSE 0 END, " +
-                      "AVG(c.rating) DESC";
-
+    private List<ItemSummaryDto> findItemPage(ItemSort sort, int size, int page){
+        String jpql = SELECT_ITEM_SUMMARY +
+                      "ORDER BY " + orderByOf(sort);
 
-        try{
-            List<Object[]> results = entityManager.createQuery(jpql, Object[].class)
-                                    .setFirstResult((page-1) * size)
-                                    .setMaxResults(size)
-                                    .getResultList();
-
-            List<Item> items = new ArrayList<>();
-            for(Object[] result : results){
-                Item item = (Item) result[0];
-                item.setAverageRating((int) ((double)result[1]));
-                item.setCommentCount((int) (long)result[2]);
-                items.add(item);
-            }
+        List<ItemSummaryDto> items = entityManager.createQuery(jpql, ItemSummaryDto.class)
+                .setFirstResult((page-1) * size)
+                .setMaxResults(size)
+                .getResultList();
 
-            if(items.isEmpty()){
-                return null;
-            }
-            return items;
-        }catch (NoResultException e) {
+        if(items.isEmpty()){
             return null;
         }
+        return items;
     }
 
-    @Transactional(readOnly = true)
-    public List<Item> findItemsSortedByComment(int size, int page){
-        String jpql = "SELECT i, COALESCE(AVG(c.rating), 0) AS avgRating, COALESCE(COUNT(c.id), 0) AS commentCount " +
-                      "FROM Item i " +
-                      "LEFT JOIN Comment c " +
-                      "ON i.id = c.item.id " +
-                      "GROUP BY i.id " +
-                      "ORDER BY COUNT(c.id) DESC";
-
-        try{
-            List<Object[]> results = entityManager.createQuery(jpql, Object[].class)
-                    .setFirstResult((page-1) * size)
-                    .setMaxResults(size)
-                    .getResultList();
-
-            List<Item> items = new ArrayList<>();
-            for(Object[] result : results){
-                Item item = (Item) result[0];
-                item.setAverageRating((int) ((double)result[1]));
-                item.setCommentCount((int) (long)result[2]);
-                items.add(item);
-            }
+    //정렬 키가 같은 상품끼리의 순서를 고정하기 위해 항상 id 를 마지막 정렬 기준으로 사용
+    private String orderByOf(ItemSort sort){
+        switch(sort){
+            case EXPENSIVE:
+                return "i.itemPrice DESC, i.id DESC";
+            case CHEAP:
+                return "i.itemPrice ASC, i.id ASC";
+            case RECOMMEND:
+                return "i.ratingAverage DESC, i.id DESC";
+            case REVIEW:
+                return "i.commentCount DESC, i.id DESC";
+            default:
+                return "i.id DESC";
+        }
+    }
 
-            if(items.isEmpty()){
-                return null;
-            }
-            return items;
-        }catch (NoResultException e) {
-            return null;
+    private String seekConditionOf(ItemSort sort){
+        switch(sort){
+            case EXPENSIVE:
+                return "(i.itemPrice < :key OR (i.itemPrice = :key AND i.id < :id))";
+            case CHEAP:
+                return "(i.itemPrice > :key OR (i.itemPrice = :key AND i.id > :id))";
+            case RECOMMEND:
+                return "(i.ratingAverage < :key OR (i.ratingAverage = :key AND i.id < :id))";
+            case REVIEW:
+                return "(i.commentCount < :key OR (i.commentCount = :key AND i.id < :id))";
+            default:
+                return "i.id < :id";
         }
     }
 
 
-    //추천순
-//    @Transactional(readOnly = true)
-//    public List<Item> findItemsSortedByRecommendDesc(int size, int page){
-//
-//        //"SELECT i, AVG(c.rating) "으로 해서 별도의 c.rating 작업없이 바로 평균 평점 가져오면 좋을듯
-//        String recommendDescJqpl = "SELECT i " +
-//                                   "FROM Item i " +
-//                                   "JOIN Comment c " +
-//                                   "ON i.id = c.item.id " +
-//                                   "GROUP BY i.id " +
-//                                   "ORDER BY AVG(c.rating) DESC";
-//
-//        String noRecommendJpql = "SELECT i " +
-//                                 "FROM Item i " +
-//                                 "LEFT JOIN Comment c " +
-//                                 "ON i.id =  c.item.id " +
-//                                 "WHERE c.item.id IS NULL";
-//
-//
-//
-//        List<Item> itemListByRecommendDesc = null;
-//        List<Item> itemListByNoRecommend = null;
-//        try {
-//            itemListByRecommendDesc = entityManager.createQuery(recommendDescJqpl, Item.class)
-//                    .setFirstResult((page - 1) * size)
-//                    .setMaxResults(size)
-//                    .getResultList();
-//        }
-//        catch (NoResultException e){
-//            log.info("no recommend item");
-//        }
-//
-//        try{
-//            itemListByNoRecommend = entityManager.createQuery(noRecommendJpql, Item.class)
-//                                   .setFirstResult((page-1) * size)
-//                                   .setMaxResults(size)
-//                                   .getResultList();
-//        }catch (NoResultException e) {
-//            log.info("no not recommend item");
-//        }
-//
-//        List<Item> resultList = new ArrayList<>();
-//        if (itemListByRecommendDesc != null) {
-//            resultList.addAll(itemListByRecommendDesc);
-//        }
-//        if (itemListByNoRecommend != null) {
-//            resultList.addAll(itemListByNoRecommend);
-//        }
-//
-//        if(resultList.isEmpty()){
-//            return null;
-//        }
-//
-//        return resultList;
-//    }
+    //집계 컬럼 전체 재계산 (기존 데이터 이관 및 어긋난 값 복구용)
+    @Transactional
+    public int rebuildStats(){
+        String rebuildCount = "UPDATE Item i SET " +
+                "i.ratingSum = COALESCE((SELECT SUM(c.rating) FROM Comment c WHERE c.item.id = i.id), 0), " +
+                "i.ratingCount = (SELECT COUNT(c.rating) FROM Comment c WHERE c.item.id = i.id), " +
+                "i.commentCount = (SELECT COUNT(c.id) FROM Comment c WHERE c.item.id = i.id), " +
+                "i.star1Count = (SELECT COUNT(c.id) FROM Comment c WHERE c.item.id = i.id AND c.rating = 1), " +
+                "i.star2Count = (SELECT COUNT(c.id) FROM Comment c WHERE c.item.id = i.id AND c.rating = 2), " +
+                "i.star3Count = (SELECT COUNT(c.id) FROM Comment c WHERE c.item.id = i.id AND c.rating = 3), " +
+                "i.star4Count = (SELECT COUNT(c.id) FROM Comment c WHERE c.item.id = i.id AND c.rating = 4), " +
+                "i.star5Count = (SELECT COUNT(c.id) FROM Comment c WHERE c.item.id = i.id AND c.rating = 5)";
+
+        int count = entityManager.createQuery(rebuildCount)
+                .executeUpdate();
+
+        String rebuildAverage = "UPDATE Item i SET " +
+                "i.ratingAverage = CASE WHEN i.ratingCount = 0 THEN 0.0 " +
+                "ELSE CAST(i.ratingSum AS Double) / i.ratingCount END";
 
+        entityManager.createQuery(rebuildAverage)
+                .executeUpdate();
 
+        return count;
+    }
 
     @Transactional
     public int deleteById(int id){
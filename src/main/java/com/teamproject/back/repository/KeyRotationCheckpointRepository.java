@@ -0,0 +1,37 @@
+package com.teamproject.back.repository;
+
+import com.teamproject.back.entity.KeyRotationCheckpoint;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public class KeyRotationCheckpointRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Transactional(readOnly = true)
+    public KeyRotationCheckpoint findByName(String name){
+        return em.find(KeyRotationCheckpoint.class, name);
+    }
+
+    //진행 위치 저장 (없으면 생성)
+    @Transactional
+    public void save(String name, int keyVersion, long lastId){
+        KeyRotationCheckpoint checkpoint = em.find(KeyRotationCheckpoint.class, name);
+        if(checkpoint == null){
+            em.persist(KeyRotationCheckpoint.builder()
+                    .name(name)
+                    .keyVersion(keyVersion)
+                    .lastId(lastId)
+                    .updatedDate(LocalDateTime.now())
+                    .build());
+            return;
+        }
+        checkpoint.moveTo(keyVersion, lastId);
+    }
+}
@@ -0,0 +1,54 @@
+package com.teamproject.back.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+//좋아요 쓰기 지연(LikeWriteBuffer) 반영용 JDBC 배치
+//좋아요 추가/삭제를 각각 한 번의 batchUpdate 로 보내고, 바뀐 댓글의 like_count 를 다시 셈
+@Repository
+@Slf4j
+public class LikeBatchRepository {
+
+    private static final int RECOUNT_CHUNK_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    public LikeBatchRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    //likes : {commentId, userId} 목록
+    //추가는 INSERT IGNORE, 삭제는 없으면 0건이므로 같은 상태를 여러 번 반영해도 결과가 같음
+    @Transactional
+    public void apply(List<Object[]> inserts, List<Object[]> deletes, Collection<Long> commentIds){
+        if(!inserts.isEmpty()){
+            jdbcTemplate.batchUpdate("INSERT IGNORE INTO likes (comment_id, user_id) VALUES (?, ?)", inserts);
+        }
+        if(!deletes.isEmpty()){
+            jdbcTemplate.batchUpdate("DELETE FROM likes WHERE comment_id = ? AND user_id = ?", deletes);
+        }
+
+        //증감 대신 다시 세므로 중복 반영, 없는 댓글 등으로 인한 어긋남이 생기지 않음
+        List<Long> ids = new ArrayList<>(commentIds);
+        for(int from = 0; from < ids.size(); from += RECOUNT_CHUNK_SIZE){
+            List<Long> chunk = ids.subList(from, Math.min(from + RECOUNT_CHUNK_SIZE, ids.size()));
+            namedParameterJdbcTemplate.update(
+                    "UPDATE comment c SET c.like_count = " +
+                    "(SELECT COUNT(*) FROM likes l WHERE l.comment_id = c.id) " +
+                    "WHERE c.id IN (:commentIds)",
+                    new MapSqlParameterSource("commentIds", chunk));
+        }
+    }
+}
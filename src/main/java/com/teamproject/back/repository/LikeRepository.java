@@ -1,19 +1,18 @@
 package com.teamproject.back.repository;
 
-import com.teamproject.back.entity.Comment;
 import com.teamproject.back.entity.Item;
-import com.teamproject.back.entity.Likes;
-import com.teamproject.back.entity.Users;
-import com.teamproject.back.util.AesUtil;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
-import jakarta.persistence.NonUniqueResultException;
 import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Repository
 @Slf4j
@@ -22,101 +21,188 @@ public class LikeRepository {
     @PersistenceContext
     private EntityManager em;
 
+    //comment.like_count 집계 컬럼 조회 (좋아요 행을 불러오지 않음)
     @Transactional(readOnly = true)
     public Long findCountByCommentId(Long commentId){
-
-        //JOIN FETCH + COUNT를 사용하면 에러남
-        //JOIN 사용하면 N+1 문제 발생
-        //급하게 JOIN FETCH + List Size 로 해결했으나, 다른 방법을 고민해봐야함
-        String jpql = "SELECT l FROM Likes l " +
-                      "JOIN FETCH l.comment c " +
+        String jpql = "SELECT c.likeCount FROM Comment c " +
                       "WHERE c.id = :commentId";
 
-        return (long)em.createQuery(jpql)
-                .setParameter("commentId", commentId)
-                .getResultList().size();
+        try{
+            Integer likeCount = em.createQuery(jpql, Integer.class)
+                    .setParameter("commentId", commentId)
+                    .getSingleResult();
+            return likeCount.longValue();
+        }catch(NoResultException e){
+            return 0L;
+        }
     }
 
+    //회원 id 기준 좋아요 여부 ((comment_id, user_id) 유니크 키 조회)
     @Transactional(readOnly = true)
-    public boolean checkClicked(Long commentId, String email){
-        String encryptedEmail = AesUtil.encrypt(email);
+    public boolean existsByUserId(Long commentId, Long userId){
+        String jpql = "SELECT l.id FROM Likes l " +
+                "WHERE l.comment.id = :commentId " +
+                "AND l.users.id = :userId";
 
-        String jpql = "SELECT l FROM Likes l " +
-                "JOIN FETCH l.comment c " +
-                "JOIN FETCH l.users u " +
-                "WHERE c.id = :commentId " +
-                "AND u.email = :email";
+        return !em.createQuery(jpql, Long.class)
+                .setParameter("commentId", commentId)
+                .setParameter("userId", userId)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
 
+    //회원이 누른 상태 (true/false), 없는 댓글이면 null
+    //댓글 존재 확인과 좋아요 여부를 한 번에 조회
+    @Transactional(readOnly = true)
+    public Boolean findLikeState(Long commentId, Long userId){
+        String jpql = "SELECT l.id FROM Comment c " +
+                "LEFT JOIN Likes l ON l.comment = c AND l.users.id = :userId " +
+                "WHERE c.id = :commentId";
 
-        try {
-            em.createQuery(jpql, Likes.class)
-                    .setParameter("commentId", commentId)
-                    .setParameter("email", encryptedEmail)
-                    .getSingleResult();
-        } catch (NoResultException e) {
-            return false;
-        }catch(NonUniqueResultException e){
-            log.error("동일한 댓글에 대한 중복된 좋아요 값을 지니고 있음");
-            throw new RuntimeException("동일한 댓글에 대한 중복된 좋아요 값입니다.", e);
+        List<Long> likeIds = em.createQuery(jpql, Long.class)
+                .setParameter("commentId", commentId)
+                .setParameter("userId", userId)
+                .setMaxResults(1)
+                .getResultList();
+        if(likeIds.isEmpty()){
+            return null;
         }
-
-        return true;
+        return likeIds.get(0) != null;
     }
 
-    @Transactional
-    public Likes save(Long commentId, String email){
-        String encryptedEmail = AesUtil.encrypt(email);
-
-        // 중복된 좋아요 추가는 무시
-        if(checkClicked(commentId, email)){
-            return null;
+    //댓글 id 목록의 좋아요 수 (집계 컬럼, 한 번에 조회)
+    //없는 댓글은 결과에 포함되지 않음
+    @Transactional(readOnly = true)
+    public Map<Long, Long> findCountsByCommentIds(List<Long> commentIds){
+        String jpql = "SELECT c.id, c.likeCount FROM Comment c " +
+                      "WHERE c.id IN :commentIds";
+
+        Map<Long, Long> counts = new HashMap<>();
+        for(Object[] row : em.createQuery(jpql, Object[].class)
+                .setParameter("commentIds", commentIds)
+                .getResultList()){
+            counts.put((Long) row[0], ((Integer) row[1]).longValue());
         }
+        return counts;
+    }
 
-        Comment comment = em.find(Comment.class, commentId);
+    //댓글 id 목록 중 해당 회원이 좋아요를 누른 댓글 id
+    @Transactional(readOnly = true)
+    public Set<Long> findClickedCommentIds(List<Long> commentIds, Long userId){
+        String jpql = "SELECT l.comment.id FROM Likes l " +
+                      "WHERE l.comment.id IN :commentIds " +
+                      "AND l.users.id = :userId";
+
+        return new HashSet<>(em.createQuery(jpql, Long.class)
+                .setParameter("commentIds", commentIds)
+                .setParameter("userId", userId)
+                .getResultList());
+    }
 
-        String findUsersByEmail = "SELECT u FROM Users u " +
-                                  "WHERE u.email = :email";
-        try{
-            Users user = em.createQuery(findUsersByEmail, Users.class)
-                    .setParameter("email", encryptedEmail)
-                    .getSingleResult();
-            Likes like = Likes.builder().build();
-            like.fetchComment(comment);
-            like.fetchUser(user);
+    //좋아요 추가 (중복이면 무시)
+    //(comment_id, user_id) 유니크 키 + INSERT IGNORE 한 문장으로 처리하므로 동시에 여러 번 눌러도 1건만 저장됨
+    //실제로 추가된 경우에만 좋아요 수 증가, 추가된 행 수 반환 (0 : 이미 누름 또는 없는 댓글)
+    @Transactional
+    public int insertIfAbsent(Long commentId, Long userId){
+        String sql = "INSERT IGNORE INTO likes (comment_id, user_id) " +
+                "VALUES (:commentId, :userId)";
 
-            em.persist(like);
-            em.flush();
-            return like;
+        int inserted = em.createNativeQuery(sql)
+                .setParameter("commentId", commentId)
+                .setParameter("userId", userId)
+                .executeUpdate();
 
-        }catch(Exception e){
-            log.error("회원 조회 실패");
-            return null;
+        if(inserted > 0){
+            incrementLikeCount(commentId);
         }
+        return inserted;
     }
 
+    //좋아요 취소 (없으면 0)
     @Transactional
-    public int delete(Long commentId, String email){
-        String encryptedEmail = AesUtil.encrypt(email);
-
-        //l.comment, l.users를 불러오는 과정에서 +2번 쿼리 추가 소모
-        //DELETE에 JOIN FETCH 사용 불가
+    public int deleteByUserId(Long commentId, Long userId){
         String jpql = "DELETE FROM Likes l " +
                 "WHERE l.comment.id = :commentId " +
-                "AND l.users.email = :email";
+                "AND l.users.id = :userId";
 
-        return em.createQuery(jpql)
+        int count = em.createQuery(jpql)
                 .setParameter("commentId", commentId)
-                .setParameter("email", encryptedEmail)
+                .setParameter("userId", userId)
                 .executeUpdate();
+
+        if(count > 0){
+            decrementLikeCount(commentId, count);
+        }
+        return count;
     }
 
+    //좋아요 수 집계 컬럼 전체 재계산 (기존 데이터 이관용)
     @Transactional
-    public int deleteAllByCommentId(Long commentId){
-        String jpql = "DELETE FROM Likes l " +
-                    "WHERE l.comment.id = :commentId";
+    public int rebuildLikeCounts(){
+        String jpql = "UPDATE Comment c SET " +
+                "c.likeCount = (SELECT COUNT(l.id) FROM Likes l WHERE l.comment.id = c.id)";
+
+        return em.createQuery(jpql)
+                .executeUpdate();
+    }
+
+    //좋아요 수 어긋남 복구 (LikeCountReconcileJob 에서 구간별로 호출)
+    //실제 좋아요 수와 다른 댓글만 한 문장으로 갱신, 갱신한 댓글 수 반환
+    @Transactional
+    public int reconcileLikeCounts(List<Long> commentIds){
+        if(commentIds.isEmpty()){
+            return 0;
+        }
+
+        String jpql = "UPDATE Comment c SET " +
+                "c.likeCount = (SELECT COUNT(l.id) FROM Likes l WHERE l.comment.id = c.id) " +
+                "WHERE c.id IN :commentIds " +
+                "AND c.likeCount <> (SELECT COUNT(l2.id) FROM Likes l2 WHERE l2.comment.id = c.id)";
+
+        return em.createQuery(jpql)
+                .setParameter("commentIds", commentIds)
+                .executeUpdate();
+    }
+
+    //id 순 다음 구간의 댓글 id (키셋)
+    @Transactional(readOnly = true)
+    public List<Long> findCommentIdsAfter(Long afterId, int limit){
+        String jpql = "SELECT c.id FROM Comment c " +
+                "WHERE c.id > :afterId " +
+                "ORDER BY c.id";
+
+        return em.createQuery(jpql, Long.class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private int incrementLikeCount(Long commentId){
+        String jpql = "UPDATE Comment c SET " +
+                "c.likeCount = c.likeCount + 1 " +
+                "WHERE c.id = :commentId";
 
         return em.createQuery(jpql)
                 .setParameter("commentId", commentId)
                 .executeUpdate();
     }
+
+    //음수가 되지 않도록 현재 값이 count 이상일 때만 감소
+    //(조건에 걸려 0건이면 집계가 이미 어긋난 것이므로 복구 작업에 맡김)
+    private int decrementLikeCount(Long commentId, int count){
+        String jpql = "UPDATE Comment c SET " +
+                "c.likeCount = c.likeCount - :count " +
+                "WHERE c.id = :commentId " +
+                "AND c.likeCount >= :count";
+
+        int updated = em.createQuery(jpql)
+                .setParameter("count", count)
+                .setParameter("commentId", commentId)
+                .executeUpdate();
+        if(updated == 0){
+            log.info("좋아요 수 집계 불일치 : commentId {}", commentId);
+        }
+        return updated;
+    }
 }
@@ -0,0 +1,82 @@
+package com.teamproject.back.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.function.Consumer;
+
+//users 암호화 컬럼 일괄 처리용 JDBC (키 교체 작업)
+//엔티티를 거치지 않으므로 영속성 컨텍스트, @PostLoad/@PreUpdate 비용이 없음
+@Repository
+public class UserCryptoRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public UserCryptoRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long findMaxId(){
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM users", Long.class);
+        return maxId == null ? 0 : maxId;
+    }
+
+    //(fromId, toId] 구간의 암호화 컬럼을 id 순으로 한 행씩 전달
+    //fetchSize 만큼씩 나눠 읽으므로 구간 전체를 메모리에 올리지 않음
+    //(MySQL 은 접속 URL 에 useCursorFetch=true 가 있어야 fetchSize 가 적용됨)
+    @Transactional(readOnly = true)
+    public void streamEncryptedFields(long fromId, long toId, int fetchSize, Consumer<EncryptedUser> consumer){
+        String sql = "SELECT id, email, username FROM users " +
+                "WHERE id > ? AND id <= ? " +
+                "ORDER BY id";
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement preparedStatement = connection.prepareStatement(sql);
+            preparedStatement.setFetchSize(fetchSize);
+            preparedStatement.setLong(1, fromId);
+            preparedStatement.setLong(2, toId);
+            return preparedStatement;
+        }, resultSet -> {
+            consumer.accept(new EncryptedUser(
+                    resultSet.getLong("id"),
+                    resultSet.getString("email"),
+                    resultSet.getString("username")));
+        });
+    }
+
+    //다시 암호화한 값 저장 (한 배치 = 한 트랜잭션)
+    //읽은 뒤 다른 요청이 값을 바꾼 행은 덮어쓰지 않도록 읽을 때의 암호문이 그대로일 때만 수정
+    //withUsername : {email, username, id, 이전 email, 이전 username}
+    //withoutUsername : {email, id, 이전 email} (username 이 null 인 행)
+    //수정된 행 수 반환
+    @Transactional
+    public int updateEncryptedFields(List<Object[]> withUsername, List<Object[]> withoutUsername){
+        int count = 0;
+        if(!withUsername.isEmpty()){
+            count += sum(jdbcTemplate.batchUpdate("UPDATE users SET email = ?, username = ? " +
+                    "WHERE id = ? AND email = ? AND username = ?", withUsername));
+        }
+        if(!withoutUsername.isEmpty()){
+            count += sum(jdbcTemplate.batchUpdate("UPDATE users SET email = ? " +
+                    "WHERE id = ? AND email = ? AND username IS NULL", withoutUsername));
+        }
+        return count;
+    }
+
+    //드라이버가 배치 결과를 SUCCESS_NO_INFO(-2) 로 주면 1건으로 셈
+    private int sum(int[] counts){
+        int sum = 0;
+        for(int count : counts){
+            sum += count < 0 ? 1 : count;
+        }
+        return sum;
+    }
+
+    public record EncryptedUser(long id, String email, String username) {
+    }
+}
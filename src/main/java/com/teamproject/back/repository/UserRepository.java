@@ -7,12 +7,15 @@ import com.teamproject.back.util.AesUtil;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 
 @Repository
@@ -31,15 +34,77 @@ public class UserRepository{
 
 
 
+    //email_hash 유니크 인덱스로 조회 (암호화 없이 HMAC 한 번)
+    //못 찾으면 email_hash 이관 전 데이터일 수 있으므로 기존 암호문으로 한 번 더 조회
     @Transactional(readOnly = true)
     public Users findByEmail(String email) {
-        String encryptedEmail = AesUtil.encrypt(email);
-
-        String jpql = "SELECT u FROM Users u WHERE u.email = :email";
+        String jpql = "SELECT u FROM Users u WHERE u.emailHash = :emailHash";
 
         try {
             return entityManager.createQuery(jpql, Users.class)
-                    .setParameter("email", encryptedEmail)
+                    .setParameter("emailHash", AesUtil.blindIndex(email))
+                    .getSingleResult();
+        } catch (NoResultException e) {
+            return findLegacyByEmail(email, Users.class, "u");
+        }
+    }
+
+
+    //회원 id 만 조회 (엔티티 로딩, 복호화 없음), 없으면 null
+    @Transactional(readOnly = true)
+    public Long findIdByEmail(String email) {
+        String jpql = "SELECT u.id FROM Users u WHERE u.emailHash = :emailHash";
+
+        try {
+            return entityManager.createQuery(jpql, Long.class)
+                    .setParameter("emailHash", AesUtil.blindIndex(email))
+                    .getSingleResult();
+        } catch (NoResultException e) {
+            return findLegacyByEmail(email, Long.class, "u.id");
+        }
+    }
+
+    //email_hash 로 수정, 0건이면 이관 전 데이터일 수 있으므로 기존 암호문으로 한 번 더
+    private int updateByEmail(String updateJpql, Map<String, Object> parameters, String email) {
+        Query query = entityManager.createQuery(updateJpql + " WHERE u.emailHash = :emailHash")
+                .setParameter("emailHash", AesUtil.blindIndex(email));
+        parameters.forEach(query::setParameter);
+        int count = query.executeUpdate();
+        if(count > 0){
+            return count;
+        }
+
+        Query legacyQuery = entityManager.createQuery(updateJpql + " WHERE u.emailHash IS NULL AND u.email = :email")
+                .setParameter("email", AesUtil.encryptLegacy(email));
+        parameters.forEach(legacyQuery::setParameter);
+        return legacyQuery.executeUpdate();
+    }
+
+    //email_hash 가 없는 회원 채우기 (기존 데이터 이관용)
+    //email_hash 를 채우면 @PreUpdate 에서 email, username 도 새 형식으로 다시 암호화됨
+    //더 채울 것이 없으면 0
+    @Transactional
+    public int backfillEmailHashes(int limit) {
+        List<Users> users = entityManager.createQuery("SELECT u FROM Users u " +
+                        "WHERE u.emailHash IS NULL " +
+                        "ORDER BY u.id", Users.class)
+                .setMaxResults(limit)
+                .getResultList();
+
+        users.forEach(Users::assignEmailHash);
+        entityManager.flush();
+        entityManager.clear();
+        return users.size();
+    }
+
+    //email_hash 이관 전 데이터 조회 (이전 형식 암호문은 같은 값 -> 같은 암호문)
+    private <T> T findLegacyByEmail(String email, Class<T> resultClass, String select) {
+        String jpql = "SELECT " + select + " FROM Users u " +
+                "WHERE u.emailHash IS NULL AND u.email = :email";
+
+        try {
+            return entityManager.createQuery(jpql, resultClass)
+                    .setParameter("email", AesUtil.encryptLegacy(email))
                     .getSingleResult();
         } catch (NoResultException e) {
             return null;
@@ -54,14 +119,13 @@ public class UserRepository{
     public int patchUser(Users users){
         String jpql = "UPDATE Users u SET " +
                 "u.username = :username, " +
-                "u.birthday = :birthday " +
-                "WHERE u.email = :email";
+                "u.birthday = :birthday";
 
-        int count = entityManager.createQuery(jpql)
-                .setParameter("username", AesUtil.encrypt(users.getUsername()))
-                .setParameter("birthday", users.getBirthday())
-                .setParameter("email", AesUtil.encrypt(users.getEmail()))
-                .executeUpdate();
+        //birthday 는 null 일 수 있음 (Map.of 사용 불가)
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("username", AesUtil.encrypt(users.getUsername()));
+        parameters.put("birthday", users.getBirthday());
+        int count = updateByEmail(jpql, parameters, users.getEmail());
 
         entityManager.flush();
         entityManager.clear();
@@ -72,16 +136,10 @@ public class UserRepository{
     @Modifying(clearAutomatically = true)
     @Transactional
     public int patchPassword(String email, String encodedPassword) {
-        String encryptedEmail = AesUtil.encrypt(email);
-
         String jpql = "UPDATE Users u SET " +
-                "u.password = :password " +
-                "WHERE u.email = :email";
+                "u.password = :password";
 
-        int count = entityManager.createQuery(jpql)
-                    .setParameter("password", encodedPassword)
-                    .setParameter("email", encryptedEmail)
-                    .executeUpdate();
+        int count = updateByEmail(jpql, Map.of("password", encodedPassword), email);
 
         entityManager.flush();
         entityManager.clear();
@@ -93,16 +151,10 @@ public class UserRepository{
     @Modifying(clearAutomatically = true)
     @Transactional
     public int patchUsername(String email, String username) {
-        String encryptedEmail = AesUtil.encrypt(email);
-
         String jpql = "UPDATE Users u SET " +
-                "u.username = :username " +
-                "WHERE u.email = :email";
+                "u.username = :username";
 
-        int count = entityManager.createQuery(jpql)
-                .setParameter("username", AesUtil.encrypt(username))
-                .setParameter("email", encryptedEmail)
-                .executeUpdate();
+        int count = updateByEmail(jpql, Map.of("username", AesUtil.encrypt(username)), email);
 
         entityManager.flush();
         entityManager.clear();
@@ -62,7 +62,8 @@ public class SecurityConfig {
                                 new AntPathRequestMatcher("/api/login/**"),
                                 new AntPathRequestMatcher("/api/search/**"),
                                 new AntPathRequestMatcher("/api/login/**"),
-                                new AntPathRequestMatcher("/api/search/**")
+                                new AntPathRequestMatcher("/api/search/**"),
+                                new AntPathRequestMatcher("/api/suggest")
 
                         ).permitAll()
                         .requestMatchers("/security/user").hasRole("USER")
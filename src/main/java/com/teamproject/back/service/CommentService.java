@@ -1,19 +1,25 @@
 package com.teamproject.back.service;
 
 
+import com.teamproject.back.dto.CommentCursorPageDto;
 import com.teamproject.back.dto.CommentDto;
+import com.teamproject.back.dto.ReviewCursor;
+import com.teamproject.back.dto.ReviewSort;
 import com.teamproject.back.dto.ItemFormResponseDto;
 import com.teamproject.back.entity.Comment;
 import com.teamproject.back.entity.Item;
 import com.teamproject.back.entity.Users;
 import com.teamproject.back.repository.CommentRepository;
-import com.teamproject.back.repository.LikeRepository;
+import com.teamproject.back.repository.UserRepository;
+import com.teamproject.back.service.cache.ItemListCache;
+import com.teamproject.back.util.SecurityUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -24,12 +30,14 @@ import java.util.stream.Collectors;
 public class CommentService {
 
     private final CommentRepository commentRepository;
-    private final LikeRepository likeRepository;
+    private final UserRepository userRepository;
+    private final ItemListCache itemListCache;
 
     @Autowired
-    public CommentService(CommentRepository commentRepository, LikeRepository likeRepository) {
+    public CommentService(CommentRepository commentRepository, UserRepository userRepository, ItemListCache itemListCache) {
         this.commentRepository = commentRepository;
-        this.likeRepository = likeRepository;
+        this.userRepository = userRepository;
+        this.itemListCache = itemListCache;
     }
 
 
@@ -48,45 +56,162 @@ public class CommentService {
         return toCommentDtoList(comments);
     }
 
+    //리뷰(부모 댓글) 커서 모드 목록 조회
+    //다음 페이지 존재 여부를 알기 위해 size + 1 개를 조회
+    public CommentCursorPageDto findReviewsByCursor(Integer itemId, String sort, String cursor, int size){
+        if(size < 1){
+            log.info("잘못된 페이지 크기 : {}", size);
+            return null;
+        }
+
+        ReviewSort reviewSort = ReviewSort.from(sort);
+
+        ReviewCursor after;
+        try{
+            after = ReviewCursor.decode(reviewSort, cursor);
+        }catch(IllegalArgumentException e){
+            log.info("잘못된 커서 : {}", cursor);
+            return null;
+        }
+
+        List<Comment> comments = commentRepository.findReviewsByCursor(itemId, reviewSort, after, size + 1);
+
+        String next = null;
+        if(comments.size() > size){
+            comments = comments.subList(0, size);
+            next = ReviewCursor.from(reviewSort, comments.get(size - 1)).encode();
+        }
+
+        List<CommentDto> commentDtoList = new ArrayList<>(comments.size());
+        for(Comment comment : comments){
+            CommentDto commentDto = toItemCommentDto(itemId, comment);
+            commentDto.setLikeCount(comment.getLikeCount());
+            commentDtoList.add(commentDto);
+        }
+
+        return CommentCursorPageDto.builder()
+                .comments(commentDtoList)
+                .next(next)
+                .build();
+    }
+
+    //상품 댓글 전체를 한 번에 조회한 뒤 부모/자식 트리로 조립
+    //id 순으로 조회하므로 부모가 항상 자식보다 먼저 나옴
+    public List<CommentDto> findThreadByItemId(Integer itemId){
+        return toCommentTree(commentRepository.findThreadByItemId(itemId));
+    }
+
+    //댓글 + 모든 하위 답글을 트리로 조회 (경로 접두어 조회 한 번, 경로 이관 전이면 재귀 조회)
+    //루트에 하위 답글 수 (descendantCount) 를 채움
+    public CommentDto findSubtree(Long id){
+        List<Comment> comments = commentRepository.findSubtree(id);
+        if(comments.isEmpty()){
+            log.info("댓글 없음 : {}", id);
+            return null;
+        }
+
+        CommentDto root = toCommentTree(comments).get(0);
+        root.setDescendantCount(comments.size() - 1);
+        return root;
+    }
+
+    //루트부터 부모까지의 조상 댓글 (경로의 id 로 한 번에 조회)
+    public List<CommentDto> findAncestors(Long id){
+        String path = commentRepository.findPathById(id);
+        if(path == null){
+            log.info("댓글 없음 또는 경로 이관 전 : {}", id);
+            return null;
+        }
+
+        List<CommentDto> commentDtoList = new ArrayList<>();
+        for(Comment comment : commentRepository.findAncestorsByPath(path)){
+            commentDtoList.add(toItemCommentDto(itemIdOf(comment), comment));
+        }
+        return commentDtoList;
+    }
+
+    //부모가 같은 결과 안에서 자식보다 먼저 나와야 함 (id 순 또는 경로 순)
+    private List<CommentDto> toCommentTree(List<Comment> comments){
+        Map<Long, CommentDto> commentDtoMap = new HashMap<>(comments.size() * 2);
+        List<CommentDto> roots = new ArrayList<>();
+        for(Comment comment : comments){
+            CommentDto commentDto = toItemCommentDto(itemIdOf(comment), comment);
+            commentDto.setChildComments(new ArrayList<>());
+            commentDtoMap.put(commentDto.getId(), commentDto);
+
+            CommentDto parent = commentDto.getParentCommentId() == null ? null : commentDtoMap.get(commentDto.getParentCommentId());
+            if(parent == null){
+                roots.add(commentDto);
+            }else{
+                parent.getChildComments().add(commentDto);
+            }
+        }
+        return roots;
+    }
+
+    //지연 로딩 프록시의 id 는 초기화 없이 읽힘
+    private Integer itemIdOf(Comment comment){
+        return comment.getItem() == null ? null : comment.getItem().getId();
+    }
+
     public List<CommentDto> findChildCommentsById(Long id){
         return toCommentDtoList(commentRepository.findChildCommentsByIdWithUsers(id));
     }
 
+    //댓글 변경은 상품 평점/리뷰 수를 바꾸므로 상품 목록 캐시 무효화
     public CommentDto createComment(Integer itemId, CommentDto commentDto){
-        commentRepository.save(itemId, toComment(commentDto));
+        Long userId = currentUserId();
+        if(userId == null){
+            log.info("회원 조회 실패");
+            return null;
+        }
+
+        commentRepository.save(itemId, userId, toComment(commentDto));
+        itemListCache.invalidate();
         return commentDto;
     }
 
     public CommentDto createReply(Long parentCommentId, CommentDto childCommentDto){
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        commentRepository.saveReply(parentCommentId, email,toComment(childCommentDto));
+        Long userId = currentUserId();
+        if(userId == null){
+            log.info("회원 조회 실패");
+            return null;
+        }
+
+        commentRepository.saveReply(parentCommentId, userId, toComment(childCommentDto));
+        itemListCache.invalidate();
 
         return childCommentDto;
     }
 
     public CommentDto update(CommentDto commentDto){
         commentRepository.update(toComment(commentDto));
+        itemListCache.invalidate();
         return commentDto;
     }
 
-    //삭제 : 자식 좋아요 -> 자식 댓글 -> 본인 좋아요 -> 본인 댓글
+    //삭제 : 본인 + 모든 하위 답글과 그 좋아요를 한 트랜잭션에서 삭제
     public int delete(Long id){
-        List<Comment> commentList = commentRepository.findChildCommentById(id);
-
-        commentList.forEach(comment -> {
-            likeRepository.deleteAllByCommentId(comment.getId());
-            commentRepository.delete(comment.getId());
-
-        });
-
-        likeRepository.deleteAllByCommentId(id);
-        commentRepository.delete(id);
+        if(commentRepository.deleteSubtree(id) == 0){
+            log.info("삭제할 댓글 없음 : {}", id);
+            return 0;
+        }
+        itemListCache.invalidate();
 
         return 1;
     }
 
 
 
+    //JWT userId 클레임 사용, 클레임이 없는 이전 토큰만 이메일로 조회
+    private Long currentUserId(){
+        Long userId = SecurityUtil.currentUserId();
+        if(userId != null){
+            return userId;
+        }
+        return userRepository.findIdByEmail(SecurityUtil.currentEmail());
+    }
+
     private Comment toComment(CommentDto commentDto){
         return Comment.builder()
                 .id(commentDto.getId())
@@ -131,6 +256,21 @@ public class CommentService {
     }
 
 
+    //item, parentComment 는 id 만 사용 (지연 로딩 프록시 초기화 없음)
+    private CommentDto toItemCommentDto(Integer itemId, Comment comment){
+        Users users = comment.getUsers();
+        return CommentDto.builder()
+                .id(comment.getId())
+                .content(comment.getContent())
+                .rating(comment.getRating())
+                .usersId(users == null ? null : users.getId())
+                .email(users == null ? null : users.getEmail())
+                .itemId(itemId)
+                .parentCommentId(comment.getParentComment() == null ? null : comment.getParentComment().getId())
+                .created_date(comment.getCreated_date())
+                .build();
+    }
+
     private List<CommentDto> toCommentDtoList(List<Comment> comments){
         return comments.stream()
                 .map(this::toCommentDto)
@@ -1,19 +1,32 @@
 package com.teamproject.back.service;
 
+import com.teamproject.back.dto.ItemCursor;
+import com.teamproject.back.dto.ItemCursorPageDto;
 import com.teamproject.back.dto.ItemDTO;
 import com.teamproject.back.dto.ItemFormRequestDto;
 import com.teamproject.back.dto.ItemFormResponseDto;
+import com.teamproject.back.dto.ItemSort;
+import com.teamproject.back.dto.ItemSuggestionDto;
+import com.teamproject.back.dto.ItemSummaryDto;
 import com.teamproject.back.entity.Item;
-import com.teamproject.back.repository.CommentRepository;
 import com.teamproject.back.repository.ItemRepository;
+import com.teamproject.back.service.cache.ItemListCache;
+import com.teamproject.back.service.cache.ItemRequestCoalescer;
+import com.teamproject.back.service.search.ItemChosungIndex;
+import com.teamproject.back.service.search.ItemFuzzyIndex;
+import com.teamproject.back.service.search.ItemSearchIndex;
+import com.teamproject.back.service.search.ItemSearchIndexer;
+import com.teamproject.back.service.search.ItemSuggestIndex;
 import com.teamproject.back.util.GcsImage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.function.Supplier;
 
 
 @Service
@@ -21,66 +34,108 @@ import java.util.stream.Collectors;
 public class ItemService {
 
     private final ItemRepository itemRepository;
-    private final CommentRepository commentRepository;
+    private final ItemListCache itemListCache;
+    private final ItemRequestCoalescer itemRequestCoalescer;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemSearchIndexer itemSearchIndexer;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final ItemChosungIndex itemChosungIndex;
+    private final ItemFuzzyIndex itemFuzzyIndex;
 
 
     private final GcsImage gcsImage;
 
     @Autowired
-    public ItemService(ItemRepository itemRepository, CommentRepository commentRepository, GcsImage gcsImage) {
+    public ItemService(ItemRepository itemRepository, ItemListCache itemListCache, ItemRequestCoalescer itemRequestCoalescer,
+                       ItemSearchIndex itemSearchIndex, ItemSearchIndexer itemSearchIndexer,
+                       ItemSuggestIndex itemSuggestIndex, ItemChosungIndex itemChosungIndex,
+                       ItemFuzzyIndex itemFuzzyIndex, GcsImage gcsImage) {
         this.itemRepository = itemRepository;
-        this.commentRepository = commentRepository;
+        this.itemListCache = itemListCache;
+        this.itemRequestCoalescer = itemRequestCoalescer;
+        this.itemSearchIndex = itemSearchIndex;
+        this.itemSearchIndexer = itemSearchIndexer;
+        this.itemSuggestIndex = itemSuggestIndex;
+        this.itemChosungIndex = itemChosungIndex;
+        this.itemFuzzyIndex = itemFuzzyIndex;
         this.gcsImage = gcsImage;
     }
 
     public List<ItemFormResponseDto> findItemListByNew(int size, int page){
-        List<Item> itemList = itemRepository.findItemsWithPagination(size, page);
-        if(itemList == null){
-            log.info("상품 조회 실패");
-            return null;
-        }
-
-        return itemListToItemFormResponseDtoList(itemList);
+        return findItemPage(ItemSort.NEW, size, page,
+                () -> itemRepository.findItemsWithPagination(size, page));
     }
 
     public List<ItemFormResponseDto> findItemListByPriceDesc(int size, int page){
-        List<Item> itemList = itemRepository.findItemsSortedByPriceDesc(size, page);
+        return findItemPage(ItemSort.EXPENSIVE, size, page,
+                () -> itemRepository.findItemsSortedByPriceDesc(size, page));
+    }
+
+    public List<ItemFormResponseDto> findItemListByPriceAsc(int size, int page){
+        return findItemPage(ItemSort.CHEAP, size, page,
+                () -> itemRepository.findItemsSortedByPriceAsc(size, page));
+    }
+
+    public List<ItemFormResponseDto> findItemsSortedByRecommendDesc(int size, int page){
+        return findItemPage(ItemSort.RECOMMEND, size, page,
+                () -> itemRepository.findItemsSortedByRecommendDesc(size, page));
+    }
+
+    public List<ItemFormResponseDto> findItemsSortedByComment(int size, int page){
+        return findItemPage(ItemSort.REVIEW, size, page,
+                () -> itemRepository.findItemsSortedByComment(size, page));
+    }
+
+    //캐시 미스일 때 같은 페이지를 동시에 요청한 호출은 DB 조회 한 번을 함께 사용
+    private List<ItemFormResponseDto> findItemPage(ItemSort sort, int size, int page, Supplier<List<ItemSummaryDto>> query){
+        return itemListCache.get(sort, page, size,
+                () -> itemRequestCoalescer.execute("page", () -> toItemPage(query.get()), sort, page, size));
+    }
+
+    private List<ItemFormResponseDto> toItemPage(List<ItemSummaryDto> itemList){
         if(itemList == null){
             log.info("상품 조회 실패");
             return null;
         }
 
-        return itemListToItemFormResponseDtoList(itemList);
+        return itemSummaryListToItemFormResponseDtoList(itemList);
     }
 
-    public List<ItemFormResponseDto> findItemListByPriceAsc(int size, int page){
-        List<Item> itemList = itemRepository.findItemsSortedByPriceAsc(size, page);
-        if(itemList == null){
-            log.info("상품 조회 실패");
+    //커서(키셋) 모드 목록 조회
+    //다음 페이지 존재 여부를 알기 위해 size + 1 개를 조회
+    public ItemCursorPageDto findItemListByCursor(String sort, String cursor, int size){
+        if(size < 1){
+            log.info("잘못된 페이지 크기 : {}", size);
             return null;
         }
 
-        return itemListToItemFormResponseDtoList(itemList);
-    }
+        ItemSort itemSort = ItemSort.from(sort);
 
-    public List<ItemFormResponseDto> findItemsSortedByRecommendDesc(int size, int page){
-        List<Item> itemList = itemRepository.findItemsSortedByRecommendDesc(size, page);
-        if(itemList == null){
-            log.info("상품 조회 실패");
+        ItemCursor after;
+        try{
+            after = ItemCursor.decode(itemSort, cursor);
+        }catch(IllegalArgumentException e){
+            log.info("잘못된 커서 : {}", cursor);
             return null;
         }
 
-        return itemListToItemFormResponseDtoList(itemList);
+        return itemRequestCoalescer.execute("cursor",
+                () -> findItemPageByCursor(itemSort, after, size), itemSort, cursor, size);
     }
 
-    public List<ItemFormResponseDto> findItemsSortedByComment(int size, int page){
-        List<Item> itemList = itemRepository.findItemsSortedByComment(size, page);
-        if(itemList == null){
-            log.info("상품 조회 실패");
-            return null;
+    private ItemCursorPageDto findItemPageByCursor(ItemSort itemSort, ItemCursor after, int size){
+        List<ItemSummaryDto> itemList = itemRepository.findItemsByCursor(itemSort, after, size + 1);
+
+        String next = null;
+        if(itemList.size() > size){
+            itemList = itemList.subList(0, size);
+            next = ItemCursor.from(itemSort, itemList.get(size - 1)).encode();
         }
 
-        return itemListToItemFormResponseDtoList(itemList);
+        return ItemCursorPageDto.builder()
+                .items(itemSummaryListToItemFormResponseDtoList(itemList))
+                .next(next)
+                .build();
     }
 
     public ItemFormResponseDto save(ItemFormRequestDto itemFormRequestDto){
@@ -96,11 +151,20 @@ public class ItemService {
             log.info("상품 저장 실패");
             return null;
         }
+        itemListCache.invalidate();
+        itemSearchIndexer.refresh(saveItem.getId());
         return itemToItemFormResponseDto(saveItem);
     }
 
+    //별점 분포는 상세 조회에서만 채움
+    //(등록/수정 응답의 Item 은 요청값으로 만든 객체라 집계 컬럼이 비어 있음)
     public ItemFormResponseDto findById(int id){
-        return itemToItemFormResponseDto(itemRepository.findById(id));
+        Item item = itemRepository.findById(id);
+        ItemFormResponseDto itemFormResponseDto = itemToItemFormResponseDto(item);
+        if(itemFormResponseDto != null){
+            itemFormResponseDto.setRatingDistribution(item.getRatingDistribution());
+        }
+        return itemFormResponseDto;
     }
 
     public int deleteById(int id, String imageUrl){
@@ -111,6 +175,8 @@ public class ItemService {
         if(itemRepository.deleteById(id) == 0){
             log.info("회원 삭제 실패");
         }
+        itemListCache.invalidate();
+        itemSearchIndexer.remove(id);
         return 1;
     }
 
@@ -124,6 +190,8 @@ public class ItemService {
         if(updateItem == null){
             return null;
         }
+        itemListCache.invalidate();
+        itemSearchIndexer.refresh(updateItem.getId());
 
         return itemToItemFormResponseDto(updateItem);
     }
@@ -144,23 +212,16 @@ public class ItemService {
 //    }
 
 
+    //평점, 리뷰 수는 item 테이블의 집계 컬럼을 같은 행에서 함께 읽음
+    //상품마다 Comment AVG / GROUP BY 쿼리를 추가로 실행하지 않음
     private ItemFormResponseDto itemToItemFormResponseDto(Item item){
-        Integer averageRating = item.getAverageRating();
-        if(averageRating == null){
-            averageRating = commentRepository.findAverageRating(item.getId());
-            if(averageRating == null){
-                log.info("평점 평균 집계 실패");
-            }
-        }
-
-
         if(item != null){
             return ItemFormResponseDto.builder()
                     .id(item.getId())
                     .itemName(item.getItemName())
                     .itemDesc(item.getItemDesc())
                     .itemImg(item.getItemImg())
-                    .averageRating(averageRating)
+                    .averageRating(item.getAverageRating())
                     .commentCount(item.getCommentCount())
                     .itemStock(item.getItemStock())
                     .itemOriginPrice(item.getItemOriginPrice())
@@ -171,10 +232,28 @@ public class ItemService {
         return null;
     }
 
-    private List<ItemFormResponseDto> itemListToItemFormResponseDtoList(List<Item> items){
-        return items.stream()
-                .map(this::itemToItemFormResponseDto)
-                .collect(Collectors.toList());
+    private ItemFormResponseDto itemSummaryToItemFormResponseDto(ItemSummaryDto item){
+        return ItemFormResponseDto.builder()
+                .id(item.id())
+                .itemName(item.itemName())
+                .itemDesc(item.itemDesc())
+                .itemImg(item.itemImg())
+                .averageRating(item.averageRating())
+                .commentCount(item.commentCount())
+                .itemStock(item.itemStock())
+                .itemOriginPrice(item.itemOriginPrice())
+                .itemPrice(item.itemPrice())
+                .itemBrand(item.itemBrand())
+                .category(item.category())
+                .build();
+    }
+
+    private List<ItemFormResponseDto> itemSummaryListToItemFormResponseDtoList(List<ItemSummaryDto> items){
+        List<ItemFormResponseDto> itemFormResponseDtoList = new ArrayList<>(items.size());
+        for(ItemSummaryDto item : items){
+            itemFormResponseDtoList.add(itemSummaryToItemFormResponseDto(item));
+        }
+        return itemFormResponseDtoList;
     }
 
 
@@ -222,10 +301,25 @@ public class ItemService {
     }
 
 
-    public List<ItemDTO> searchItemList(int page, int size, String itemName) {
+    //관리자 상품 검색 (상품명 역색인, fuzzy 면 오타 허용)
+    public List<ItemDTO> searchItemList(int page, int size, String itemName, boolean fuzzy) {
         List<ItemDTO> itemDTOList = new ArrayList<>();
-        List<Item> itemList = itemRepository.searchItemList(page,size,itemName);
+        if(!itemSearchIndexer.isReady()){
+            for (Item item : itemRepository.searchItemList(page, size, itemName)) {
+                itemDTOList.add(itemToItemDTO(item, 0));
+            }
+            return itemDTOList;
+        }
 
+        if(page < 1){
+            page = 1;
+        }
+        List<ItemSummaryDto> matches = searchIndex(itemName, fuzzy);
+        int from = Math.min((page - 1) * size, matches.size());
+        int to = Math.min(from + size, matches.size());
+        for (ItemSummaryDto item : matches.subList(from, to)) {
+            itemDTOList.add(itemSummaryToItemDTO(item, matches.size()));
+        }
         return itemDTOList;
     }
 
@@ -234,17 +328,7 @@ public class ItemService {
         List<Item> itemList = itemRepository.findByAllItem(page,size);
         int totalCount = itemRepository.itemCount();
         for (Item item : itemList) {
-            ItemDTO itemDTO = new ItemDTO();
-            itemDTO.setId(item.getId());
-            itemDTO.setItemName(item.getItemName());
-            itemDTO.setItemDesc(item.getItemDesc());
-            itemDTO.setItemImg(item.getItemImg());
-            itemDTO.setItemStock(item.getItemStock());
-            itemDTO.setItemOriginPrice(item.getItemOriginPrice());
-            itemDTO.setItemBrand(item.getItemBrand());
-            itemDTO.setItemPrice(item.getItemPrice());
-            itemDTO.setTotalData(totalCount);
-            itemDTOList.add(itemDTO);
+            itemDTOList.add(itemToItemDTO(item, totalCount));
         }
         return itemDTOList;
     }
@@ -254,17 +338,7 @@ public class ItemService {
         List<Item> itemList = itemRepository.findByItemName(page,size,itemName);
         int totalCount = itemRepository.itemCount();
         for (Item item : itemList) {
-            ItemDTO itemDTO = new ItemDTO();
-            itemDTO.setId(item.getId());
-            itemDTO.setItemName(item.getItemName());
-            itemDTO.setItemDesc(item.getItemDesc());
-            itemDTO.setItemImg(item.getItemImg());
-            itemDTO.setItemStock(item.getItemStock());
-            itemDTO.setItemOriginPrice(item.getItemOriginPrice());
-            itemDTO.setItemBrand(item.getItemBrand());
-            itemDTO.setItemPrice(item.getItemPrice());
-            itemDTO.setTotalData(totalCount);
-            itemDTOList.add(itemDTO);
+            itemDTOList.add(itemToItemDTO(item, totalCount));
         }
         return itemDTOList;
     }
@@ -272,35 +346,90 @@ public class ItemService {
     public ItemDTO findByItemId(int id) {
         Item item = itemRepository.findByItemId(id);
         if(item != null){
-            ItemDTO itemDTO = new ItemDTO();
-            itemDTO.setId(item.getId());
-            itemDTO.setItemName(item.getItemName());
-            itemDTO.setItemDesc(item.getItemDesc());
-            itemDTO.setItemImg(item.getItemImg());
-            itemDTO.setItemStock(item.getItemStock());
-            itemDTO.setItemOriginPrice(item.getItemOriginPrice());
-            itemDTO.setItemBrand(item.getItemBrand());
-            itemDTO.setItemPrice(item.getItemPrice());
-            return itemDTO;
+            return itemToItemDTO(item, 0);
         }
         return null;
     }
 
-    public List<ItemDTO> findByItemName(String debouncedSearch) {
-        List<Item> itemList = itemRepository.findByItemName(debouncedSearch);
+    //메인 검색창 (상품명 역색인, DB 조회 없음, fuzzy 면 오타 허용)
+    //최초 적재 전에만 LIKE 검색으로 대체
+    public List<ItemDTO> findByItemName(String debouncedSearch, boolean fuzzy) {
         List<ItemDTO> itemDTOList = new ArrayList<>();
-        for (Item item : itemList) {
-            ItemDTO itemDTO = new ItemDTO();
-            itemDTO.setId(item.getId());
-            itemDTO.setItemName(item.getItemName());
-            itemDTO.setItemDesc(item.getItemDesc());
-            itemDTO.setItemImg(item.getItemImg());
-            itemDTO.setItemStock(item.getItemStock());
-            itemDTO.setItemOriginPrice(item.getItemOriginPrice());
-            itemDTO.setItemBrand(item.getItemBrand());
-            itemDTO.setItemPrice(item.getItemPrice());
-            itemDTOList.add(itemDTO);
+        if(!itemSearchIndexer.isReady()){
+            return itemRequestCoalescer.execute("search", () -> {
+                List<ItemDTO> fallback = new ArrayList<>();
+                for (Item item : itemRepository.findByItemName(debouncedSearch)) {
+                    fallback.add(itemToItemDTO(item, 0));
+                }
+                return fallback;
+            }, debouncedSearch);
+        }
+
+        for (ItemSummaryDto item : searchIndex(debouncedSearch, fuzzy)) {
+            itemDTOList.add(itemSummaryToItemDTO(item, 0));
         }
         return itemDTOList;
     }
+
+    //자모가 섞인 검색어("ㄷㅂ", "덤ㅂ")는 초성 색인, 그 외는 상품명 n-gram 색인
+    //fuzzy 면 정확히 일치한 결과 뒤에 편집 거리 1~2 인 상품을 이어 붙임
+    private List<ItemSummaryDto> searchIndex(String query, boolean fuzzy){
+        if(ItemChosungIndex.hasJamo(query)){
+            return itemChosungIndex.search(query);
+        }
+
+        List<ItemSummaryDto> matches = itemSearchIndex.search(query);
+        if(!fuzzy){
+            return matches;
+        }
+
+        Map<Integer, ItemSummaryDto> merged = new LinkedHashMap<>();
+        for(ItemSummaryDto item : matches){
+            merged.put(item.id(), item);
+        }
+        for(ItemSummaryDto item : itemFuzzyIndex.search(query)){
+            merged.putIfAbsent(item.id(), item);
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    //검색창 자동완성 (상품명/브랜드 상위 limit 개, 최대 10개)
+    public List<ItemSuggestionDto> suggest(String query, int limit){
+        if(!itemSearchIndexer.isReady()){
+            return new ArrayList<>();
+        }
+        return itemSuggestIndex.suggest(query, Math.min(limit, ItemSuggestIndex.MAX_SUGGESTIONS));
+    }
+
+    //관리자 목록, 검색 결과 공용 변환
+    //평점은 조회한 엔티티의 집계 컬럼을 그대로 사용 (추가 쿼리 없음)
+    private ItemDTO itemToItemDTO(Item item, int totalCount){
+        ItemDTO itemDTO = new ItemDTO();
+        itemDTO.setId(item.getId());
+        itemDTO.setItemName(item.getItemName());
+        itemDTO.setItemDesc(item.getItemDesc());
+        itemDTO.setItemImg(item.getItemImg());
+        itemDTO.setAverageRating(item.getAverageRating());
+        itemDTO.setItemStock(item.getItemStock());
+        itemDTO.setItemOriginPrice(item.getItemOriginPrice());
+        itemDTO.setItemBrand(item.getItemBrand());
+        itemDTO.setItemPrice(item.getItemPrice());
+        itemDTO.setTotalData(totalCount);
+        return itemDTO;
+    }
+
+    private ItemDTO itemSummaryToItemDTO(ItemSummaryDto item, int totalCount){
+        ItemDTO itemDTO = new ItemDTO();
+        itemDTO.setId(item.id());
+        itemDTO.setItemName(item.itemName());
+        itemDTO.setItemDesc(item.itemDesc());
+        itemDTO.setItemImg(item.itemImg());
+        itemDTO.setAverageRating(item.averageRating());
+        itemDTO.setItemStock(item.itemStock());
+        itemDTO.setItemOriginPrice(item.itemOriginPrice());
+        itemDTO.setItemBrand(item.itemBrand());
+        itemDTO.setItemPrice(item.itemPrice());
+        itemDTO.setTotalData(totalCount);
+        return itemDTO;
+    }
 }
@@ -4,27 +4,51 @@ package com.teamproject.back.service;
 import com.teamproject.back.dto.LikeDto;
 import com.teamproject.back.entity.Likes;
 import com.teamproject.back.repository.LikeRepository;
+import com.teamproject.back.repository.UserRepository;
+import com.teamproject.back.service.like.LikeWriteBuffer;
+import com.teamproject.back.util.SecurityUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @Service
 @Slf4j
 public class LikeService {
 
+    //한 번에 조회할 수 있는 댓글 수
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final LikeRepository likeRepository;
+    private final UserRepository userRepository;
+    private final LikeWriteBuffer likeWriteBuffer;
 
     @Autowired
-    public LikeService(LikeRepository likeRepository) {
+    public LikeService(LikeRepository likeRepository, UserRepository userRepository, LikeWriteBuffer likeWriteBuffer) {
         this.likeRepository = likeRepository;
+        this.userRepository = userRepository;
+        this.likeWriteBuffer = likeWriteBuffer;
     }
 
+    //쓰기 지연 사용 시 아직 반영하지 않은 증감/본인 상태를 합쳐서 응답
     public LikeDto countLike(Long commentId){
         Long totalLike = likeRepository.findCountByCommentId(commentId);
 
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        boolean clicked = likeRepository.checkClicked(commentId, email);
+        Long userId = currentUserId();
+        boolean clicked = userId != null && likeRepository.existsByUserId(commentId, userId);
+
+        if(likeWriteBuffer.isEnabled()){
+            totalLike = withPendingDelta(commentId, totalLike);
+            Boolean pendingClicked = userId == null ? null : likeWriteBuffer.pendingState(commentId, userId);
+            if(pendingClicked != null){
+                clicked = pendingClicked;
+            }
+        }
 
         return LikeDto.builder()
                 .totalLike(totalLike)
@@ -32,10 +56,61 @@ public class LikeService {
                 .build();
     }
 
+    //화면에 보이는 댓글들의 좋아요 수 + 내가 눌렀는지 여부를 한 번에 조회
+    //쿼리 2번 (집계 컬럼 조회 1번, 내 좋아요 조회 1번)
+    public List<LikeDto> countLikes(List<Long> commentIds){
+        if(commentIds == null || commentIds.isEmpty() || commentIds.size() > MAX_BATCH_SIZE){
+            log.info("잘못된 댓글 id 목록 크기");
+            return null;
+        }
+
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(commentIds));
+        Map<Long, Long> counts = likeRepository.findCountsByCommentIds(distinctIds);
+
+        Long userId = currentUserId();
+        Set<Long> clickedIds = userId == null ? Set.of() : likeRepository.findClickedCommentIds(distinctIds, userId);
+
+        boolean buffered = likeWriteBuffer.isEnabled();
+
+        List<LikeDto> likeDtoList = new ArrayList<>(distinctIds.size());
+        for(Long commentId : distinctIds){
+            long totalLike = counts.getOrDefault(commentId, 0L);
+            boolean clicked = clickedIds.contains(commentId);
+            if(buffered){
+                totalLike = withPendingDelta(commentId, totalLike);
+                Boolean pendingClicked = userId == null ? null : likeWriteBuffer.pendingState(commentId, userId);
+                if(pendingClicked != null){
+                    clicked = pendingClicked;
+                }
+            }
+            likeDtoList.add(LikeDto.builder()
+                    .commentId(commentId)
+                    .totalLike(totalLike)
+                    .clicked(clicked)
+                    .build());
+        }
+        return likeDtoList;
+    }
+
+    //같은 회원이 동시에 여러 번 눌러도 좋아요는 1건 (LikeRepository.insertIfAbsent)
     public Long addLike(Long commentId){
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        if(likeRepository.save(commentId, email) == null){
-            log.info("like 저장 실패");
+        Long userId = currentUserId();
+        if(userId == null){
+            log.info("회원 조회 실패");
+            return null;
+        }
+
+        //쓰기 지연 : 최종 상태만 기록하고 바로 응답 (DB 반영은 LikeWriteBuffer.flush)
+        if(likeWriteBuffer.isEnabled()){
+            if(!likeWriteBuffer.toggle(commentId, userId, true)){
+                log.info("like 저장 실패 (이미 누름 또는 없는 댓글)");
+                return null;
+            }
+            return commentId;
+        }
+
+        if(likeRepository.insertIfAbsent(commentId, userId) == 0){
+            log.info("like 저장 실패 (이미 누름 또는 없는 댓글)");
             return null;
         }
         log.info("commentId : {}", commentId);
@@ -43,8 +118,21 @@ public class LikeService {
     }
 
     public int removeLike(Long commentId){
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        if(likeRepository.delete(commentId, email) == 0){
+        Long userId = currentUserId();
+        if(userId == null){
+            log.info("회원 조회 실패");
+            return 0;
+        }
+
+        if(likeWriteBuffer.isEnabled()){
+            if(!likeWriteBuffer.toggle(commentId, userId, false)){
+                log.info("like 삭제 실패 (누르지 않음 또는 없는 댓글)");
+                return 0;
+            }
+            return 1;
+        }
+
+        if(likeRepository.deleteByUserId(commentId, userId) == 0){
             log.info("like 삭제 실패");
             return 0;
         }
@@ -53,6 +141,23 @@ public class LikeService {
         return 1;
     }
 
+    //없는 댓글(null) 은 그대로 두고, 음수가 되지 않도록 0 에서 멈춤
+    private Long withPendingDelta(Long commentId, Long totalLike){
+        if(totalLike == null){
+            return null;
+        }
+        return Math.max(0L, totalLike + likeWriteBuffer.pendingDelta(commentId));
+    }
+
+    //JWT userId 클레임 사용, 클레임이 없는 이전 토큰만 이메일로 조회
+    private Long currentUserId(){
+        Long userId = SecurityUtil.currentUserId();
+        if(userId != null){
+            return userId;
+        }
+        return userRepository.findIdByEmail(SecurityUtil.currentEmail());
+    }
+
 
 //    private LikeDto toLikeDto(Likes like){
 //        return LikeDto.builder()
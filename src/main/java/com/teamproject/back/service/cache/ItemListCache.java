@@ -0,0 +1,75 @@
+package com.teamproject.back.service.cache;
+
+import com.teamproject.back.dto.ItemFormResponseDto;
+import com.teamproject.back.dto.ItemSort;
+import com.teamproject.back.util.BoundedCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+//상품 목록(정렬, 페이지, 크기) 조회 결과 캐시
+//상품 또는 댓글이 변경되면 카탈로그 버전을 올려 이전 버전으로 저장된 목록을 모두 무효화
+@Component
+@Slf4j
+public class ItemListCache {
+
+    private final BoundedCache<Key, List<ItemFormResponseDto>> cache;
+    private final AtomicLong catalogVersion = new AtomicLong();
+
+    public ItemListCache(@Value("${item.cache.max-size:500}") int maxSize) {
+        this.cache = new BoundedCache<>(maxSize);
+    }
+
+    public List<ItemFormResponseDto> get(ItemSort sort, int page, int size, Supplier<List<ItemFormResponseDto>> loader){
+        //DB 조회 전에 버전을 먼저 읽음
+        //조회 도중 변경이 커밋되면 결과는 이전 버전 키로 저장되어 다시 사용되지 않음
+        Key key = new Key(catalogVersion.get(), sort, page, size);
+
+        List<ItemFormResponseDto> cached = cache.get(key);
+        if(cached != null){
+            return cached;
+        }
+
+        List<ItemFormResponseDto> loaded = loader.get();
+        if(loaded == null){
+            return null;
+        }
+
+        List<ItemFormResponseDto> unmodifiable = Collections.unmodifiableList(new ArrayList<>(loaded));
+        cache.put(key, unmodifiable);
+        return unmodifiable;
+    }
+
+    //상품/댓글 변경이 커밋된 뒤 호출
+    public void invalidate(){
+        long version = catalogVersion.incrementAndGet();
+        cache.clear();
+        log.debug("상품 목록 캐시 무효화 : version {}", version);
+    }
+
+    public long getCatalogVersion(){
+        return catalogVersion.get();
+    }
+
+    public Map<String, Object> getStats(){
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("catalogVersion", catalogVersion.get());
+        stats.put("size", cache.size());
+        stats.put("maxSize", cache.getMaxSize());
+        stats.put("hitCount", cache.getHitCount());
+        stats.put("missCount", cache.getMissCount());
+        stats.put("evictionCount", cache.getEvictionCount());
+        return stats;
+    }
+
+    private record Key(long version, ItemSort sort, int page, int size) {
+    }
+}
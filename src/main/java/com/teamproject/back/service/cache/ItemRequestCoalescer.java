@@ -0,0 +1,48 @@
+package com.teamproject.back.service.cache;
+
+import com.teamproject.back.util.SingleFlight;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+//상품 목록/검색 DB 조회 요청 합치기
+//키 = (카탈로그 버전, 조회 종류, 파라미터)
+//상품/댓글 변경 후에는 버전이 바뀌어 변경 전에 시작한 조회 결과를 받지 않음
+@Component
+public class ItemRequestCoalescer {
+
+    private final ItemListCache itemListCache;
+    private final SingleFlight<Key, Object> singleFlight;
+
+    @Autowired
+    public ItemRequestCoalescer(ItemListCache itemListCache,
+                                @Value("${item.single-flight.timeout-ms:3000}") long timeoutMillis) {
+        this.itemListCache = itemListCache;
+        this.singleFlight = new SingleFlight<>(timeoutMillis);
+    }
+
+    //같은 operation 은 항상 같은 타입을 반환하므로 캐스팅 안전
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Supplier<T> loader, Object... params){
+        Key key = new Key(itemListCache.getCatalogVersion(), operation, Arrays.asList(params));
+        return (T) singleFlight.execute(key, loader::get);
+    }
+
+    public Map<String, Object> getStats(){
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("inFlight", singleFlight.getInFlightCount());
+        stats.put("executedCount", singleFlight.getExecutedCount());
+        stats.put("coalescedCount", singleFlight.getCoalescedCount());
+        stats.put("timeoutCount", singleFlight.getTimeoutCount());
+        return stats;
+    }
+
+    private record Key(long version, String operation, List<Object> params) {
+    }
+}
@@ -0,0 +1,199 @@
+package com.teamproject.back.service.like;
+
+import com.teamproject.back.repository.LikeBatchRepository;
+import com.teamproject.back.repository.LikeRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+//좋아요 쓰기 지연 (like.write-behind.enabled=true 일 때만 사용)
+//좋아요/취소는 (댓글, 회원) 키별 최종 상태만 메모리에 남기고
+//flush-interval-ms 마다 바뀐 것만 JDBC 배치로 반영 -> DB 쓰기는 클릭 수가 아니라 (댓글, 회원) 수에 비례
+//조회는 DB 값 + 아직 반영하지 않은 증감을 합쳐서 응답하므로 본인 클릭이 바로 보임
+//서버가 비정상 종료되면 마지막 반영 이후의 클릭은 유실될 수 있음 (정상 종료 시에는 반영)
+@Component
+@Slf4j
+public class LikeWriteBuffer {
+
+    private final LikeRepository likeRepository;
+    private final LikeBatchRepository likeBatchRepository;
+    private final boolean enabled;
+
+    //ConcurrentHashMap 은 키별로 잠금이 나뉘므로 서로 다른 (댓글, 회원) 은 경합하지 않음
+    private final ConcurrentHashMap<Key, Entry> pending = new ConcurrentHashMap<>();
+    //댓글별 아직 반영하지 않은 좋아요 수 증감
+    private final ConcurrentHashMap<Long, Integer> pendingDelta = new ConcurrentHashMap<>();
+
+    private final AtomicLong toggleCount = new AtomicLong();
+    private final AtomicLong flushedCount = new AtomicLong();
+
+    @Autowired
+    public LikeWriteBuffer(LikeRepository likeRepository, LikeBatchRepository likeBatchRepository,
+                           @Value("${like.write-behind.enabled:false}") boolean enabled) {
+        this.likeRepository = likeRepository;
+        this.likeBatchRepository = likeBatchRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled(){
+        return enabled;
+    }
+
+    //좋아요(liked = true) 또는 취소(false) 요청을 기록
+    //상태가 바뀌었으면 true, 이미 같은 상태 (이미 누름 / 누르지 않음) 거나 없는 댓글이면 false
+    public boolean toggle(Long commentId, Long userId, boolean liked){
+        Key key = new Key(commentId, userId);
+        toggleCount.incrementAndGet();
+
+        while(true){
+            //map 에는 빈 항목만 넣고 (bin 잠금을 짧게), DB 기준값은 항목 잠금 안에서 읽음
+            Entry entry = pending.computeIfAbsent(key, k -> new Entry());
+            synchronized (entry){
+                //반영 직후 제거된 항목이면 새로 만들어 다시 기록
+                if(entry.removed){
+                    continue;
+                }
+                //처음 누른 (댓글, 회원) 이면 현재 DB 상태를 기준값으로 읽음
+                //항목이 map 에 들어간 뒤에 읽으므로, 이전 항목의 반영 (커밋 후 제거) 이 끝난 DB 상태를 봄
+                if(!entry.loaded){
+                    //없는 댓글이면 기록하지 않음 (바로 반영할 때와 같이 실패로 응답)
+                    Boolean baseline = likeRepository.findLikeState(commentId, userId);
+                    if(baseline == null){
+                        entry.removed = true;
+                        pending.remove(key, entry);
+                        return false;
+                    }
+                    entry.baseline = baseline;
+                    entry.liked = entry.baseline;
+                    entry.loaded = true;
+                }
+                if(entry.liked == liked){
+                    return false;
+                }
+                entry.liked = liked;
+                entry.version++;
+                addDelta(commentId, liked ? 1 : -1);
+                return true;
+            }
+        }
+    }
+
+    //아직 반영하지 않은 본인 상태, 없으면 null (DB 값 사용)
+    public Boolean pendingState(Long commentId, Long userId){
+        Entry entry = pending.get(new Key(commentId, userId));
+        if(entry == null){
+            return null;
+        }
+        synchronized (entry){
+            return entry.removed || !entry.loaded ? null : entry.liked;
+        }
+    }
+
+    //아직 반영하지 않은 좋아요 수 증감
+    public int pendingDelta(Long commentId){
+        Integer delta = pendingDelta.get(commentId);
+        return delta == null ? 0 : delta;
+    }
+
+    @Scheduled(fixedDelayString = "${like.write-behind.flush-interval-ms:300}")
+    public void flush(){
+        if(!enabled || pending.isEmpty()){
+            return;
+        }
+
+        List<Snapshot> snapshots = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        Set<Long> commentIds = new HashSet<>();
+
+        for(Map.Entry<Key, Entry> mapEntry : pending.entrySet()){
+            Key key = mapEntry.getKey();
+            Entry entry = mapEntry.getValue();
+            synchronized (entry){
+                //기준값을 읽기 전인 항목은 아직 기록한 것이 없음
+                if(entry.removed || !entry.loaded){
+                    continue;
+                }
+                snapshots.add(new Snapshot(key, entry, entry.liked, entry.version));
+                //기준값과 같으면 (눌렀다 취소) DB 에 쓸 것 없음
+                if(entry.liked != entry.baseline){
+                    (entry.liked ? inserts : deletes).add(new Object[]{key.commentId(), key.userId()});
+                    commentIds.add(key.commentId());
+                }
+            }
+        }
+
+        try{
+            likeBatchRepository.apply(inserts, deletes, commentIds);
+        }catch(RuntimeException e){
+            //다음 주기에 다시 반영 (추가/삭제 모두 여러 번 반영해도 결과가 같음)
+            log.error("좋아요 반영 실패 : {}건", inserts.size() + deletes.size(), e);
+            return;
+        }
+
+        for(Snapshot snapshot : snapshots){
+            Entry entry = snapshot.entry();
+            synchronized (entry){
+                //반영한 상태가 새 기준값, 그만큼 대기 중 증감에서 제외
+                if(entry.baseline != snapshot.liked()){
+                    addDelta(snapshot.key().commentId(), snapshot.liked() ? -1 : 1);
+                    entry.baseline = snapshot.liked();
+                }
+                //반영 도중 바뀌지 않았으면 제거
+                if(entry.version == snapshot.version()){
+                    entry.removed = true;
+                    pending.remove(snapshot.key(), entry);
+                }
+            }
+        }
+        flushedCount.addAndGet(inserts.size() + deletes.size());
+    }
+
+    @PreDestroy
+    public void flushOnShutdown(){
+        flush();
+    }
+
+    public Map<String, Object> getStats(){
+        return Map.of(
+                "enabled", enabled,
+                "pending", pending.size(),
+                "toggleCount", toggleCount.get(),
+                "flushedCount", flushedCount.get());
+    }
+
+    private void addDelta(Long commentId, int delta){
+        //더하기와 0 이 된 증감 정리를 한 번의 compute 로 (나눠서 하면 그 사이 다른 스레드의 증감이 사라질 수 있음)
+        pendingDelta.compute(commentId, (id, current) -> {
+            int next = (current == null ? 0 : current) + delta;
+            return next == 0 ? null : next;
+        });
+    }
+
+    private record Key(Long commentId, Long userId) {
+    }
+
+    //liked : 최종 요청 상태, baseline : DB 에 반영된 상태, loaded : baseline 을 DB 에서 읽었는지
+    private static final class Entry {
+
+        private boolean baseline;
+        private boolean liked;
+        private long version;
+        private boolean loaded;
+        private boolean removed;
+    }
+
+    private record Snapshot(Key key, Entry entry, boolean liked, long version) {
+    }
+}
@@ -0,0 +1,208 @@
+package com.teamproject.back.service.search;
+
+import com.teamproject.back.dto.ItemSummaryDto;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//초성 검색 색인 ("ㄷㅂ" -> 덤벨, "덤ㅂ" -> 덤벨)
+//상품명의 한글 음절을 초성 자모로 바꾼 문자열(덤벨5kg -> ㄷㅂ5kg)을 NgramPostings 로 색인
+//검색어도 같은 방식으로 바꿔 후보를 찾은 뒤, 원래 검색어 기준으로 글자마다 다시 확인
+//  음절 -> 같은 음절만, 초성 자모 -> 그 초성으로 시작하는 음절 또는 같은 자모, 그 외 -> 같은 글자
+//검색어에 호환 자모(ㄱ~ㅎ, ㅏ~ㅣ)가 하나라도 있을 때만 사용 (hasJamo)
+@Component
+public class ItemChosungIndex implements ItemIndex {
+
+    private static final char HANGUL_BEGIN = '가';
+    private static final char HANGUL_END = '힣';
+    //종성 28 * 중성 21
+    private static final int CHOSUNG_PERIOD = 588;
+    private static final char[] CHOSUNG = {
+            'ㄱ', 'ㄲ', 'ㄴ', 'ㄷ', 'ㄸ', 'ㄹ', 'ㅁ', 'ㅂ', 'ㅃ', 'ㅅ',
+            'ㅆ', 'ㅇ', 'ㅈ', 'ㅉ', 'ㅊ', 'ㅋ', 'ㅌ', 'ㅍ', 'ㅎ'
+    };
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Integer, Document> documents = new HashMap<>();
+    private NgramPostings postings = new NgramPostings();
+
+    @Override
+    public void replaceAll(Collection<ItemSummaryDto> items){
+        NgramPostings newPostings = new NgramPostings();
+        Map<Integer, Document> newDocuments = new HashMap<>(items.size() * 2);
+        for(ItemSummaryDto item : items){
+            Document document = documentOf(item);
+            newDocuments.put(item.id(), document);
+            newPostings.add(item.id(), document.chosung());
+        }
+
+        lock.writeLock().lock();
+        try{
+            documents = newDocuments;
+            postings = newPostings;
+        }finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(ItemSummaryDto item){
+        Document document = documentOf(item);
+
+        lock.writeLock().lock();
+        try{
+            Document previous = documents.put(item.id(), document);
+            if(previous != null){
+                postings.remove(item.id(), previous.chosung());
+            }
+            postings.add(item.id(), document.chosung());
+        }finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(int itemId){
+        lock.writeLock().lock();
+        try{
+            Document previous = documents.remove(itemId);
+            if(previous != null){
+                postings.remove(itemId, previous.chosung());
+            }
+        }finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //일치 등급 순으로 정렬된 전체 결과 (ItemSearchIndex 와 같은 기준)
+    public List<ItemSummaryDto> search(String query){
+        String normalized = ItemSearchIndex.normalize(query);
+        if(normalized.isEmpty()){
+            return Collections.emptyList();
+        }
+        String chosungQuery = toChosung(normalized);
+
+        List<Match> matches = new ArrayList<>();
+
+        lock.readLock().lock();
+        try{
+            Set<Integer> candidates = postings.candidates(chosungQuery);
+            if(candidates == null){
+                return Collections.emptyList();
+            }
+
+            for(Integer id : candidates){
+                Document document = documents.get(id);
+                int position = firstMatch(document, normalized, chosungQuery);
+                if(position < 0){
+                    continue;
+                }
+                matches.add(new Match(document.item(), document.name().length(),
+                        ItemSearchIndex.rankOf(document.name(), normalized, position), position));
+            }
+        }finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(MATCH_ORDER);
+
+        List<ItemSummaryDto> result = new ArrayList<>(matches.size());
+        for(Match match : matches){
+            result.add(match.item());
+        }
+        return result;
+    }
+
+    //한글 호환 자모(ㄱ ~ ㅣ)가 포함된 검색어인지
+    public static boolean hasJamo(String query){
+        if(query == null){
+            return false;
+        }
+        for(int i = 0; i < query.length(); i++){
+            char c = query.charAt(i);
+            if(c >= 'ㄱ' && c <= 'ㅣ'){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //한글 음절만 초성 자모로 변환, 나머지 글자는 그대로
+    static String toChosung(String text){
+        char[] chars = text.toCharArray();
+        for(int i = 0; i < chars.length; i++){
+            chars[i] = chosungOf(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private static char chosungOf(char c){
+        if(c < HANGUL_BEGIN || c > HANGUL_END){
+            return c;
+        }
+        return CHOSUNG[(c - HANGUL_BEGIN) / CHOSUNG_PERIOD];
+    }
+
+    //초성 문자열에서 일치하는 위치를 차례로 찾으며 원래 글자까지 맞는 첫 위치, 없으면 -1
+    private static int firstMatch(Document document, String query, String chosungQuery){
+        int position = document.chosung().indexOf(chosungQuery);
+        while(position >= 0){
+            if(matchesAt(document.name(), query, position)){
+                return position;
+            }
+            position = document.chosung().indexOf(chosungQuery, position + 1);
+        }
+        return -1;
+    }
+
+    private static boolean matchesAt(String name, String query, int offset){
+        for(int i = 0; i < query.length(); i++){
+            char q = query.charAt(i);
+            char n = name.charAt(offset + i);
+            if(q == n){
+                continue;
+            }
+            //초성 자모는 위치가 같은 초성 비교에서 이미 맞았으므로 음절이면 통과
+            if(isChosung(q) && n >= HANGUL_BEGIN && n <= HANGUL_END){
+                continue;
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean isChosung(char c){
+        for(char chosung : CHOSUNG){
+            if(chosung == c){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Document documentOf(ItemSummaryDto item){
+        String name = ItemSearchIndex.normalize(item.itemName());
+        return new Document(item, name, toChosung(name));
+    }
+
+    private static final Comparator<Match> MATCH_ORDER = Comparator
+            .comparingInt(Match::rank)
+            .thenComparingInt(Match::position)
+            .thenComparingInt(Match::length)
+            .thenComparing(match -> match.item().id());
+
+    private record Document(ItemSummaryDto item, String name, String chosung) {
+    }
+
+    private record Match(ItemSummaryDto item, int length, int rank, int position) {
+    }
+}
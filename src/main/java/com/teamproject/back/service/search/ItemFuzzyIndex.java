@@ -0,0 +1,251 @@
+package com.teamproject.back.service.search;
+
+import com.teamproject.back.dto.ItemSummaryDto;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//오타 허용 검색용 BK-tree (편집 거리 = 글자 단위 Levenshtein)
+//단어 = 정규화한 상품명 전체 + 공백으로 나눈 2글자 이상 토큰, 단어마다 상품 id 목록을 가짐
+//BK-tree 는 삼각 부등식으로 |d(검색어, 노드) - 간선 거리| <= 허용 거리 인 자식만 방문하므로 전체 단어를 비교하지 않음
+//허용 거리 : 검색어 3글자 이하 1, 그 외 2 (1~2글자는 오타 검색 안 함)
+//BK-tree 에서 노드 삭제는 불가 -> 상품이 없어진 단어는 빈 목록으로 남기고 검색 시 건너뜀, 주기적 재적재 때 정리
+@Component
+public class ItemFuzzyIndex implements ItemIndex {
+
+    private static final int MIN_QUERY_LENGTH = 3;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Tree tree = new Tree();
+
+    @Override
+    public void replaceAll(Collection<ItemSummaryDto> items){
+        Tree newTree = new Tree();
+        for(ItemSummaryDto item : items){
+            newTree.add(item);
+        }
+
+        lock.writeLock().lock();
+        try{
+            tree = newTree;
+        }finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(ItemSummaryDto item){
+        lock.writeLock().lock();
+        try{
+            tree.remove(item.id());
+            tree.add(item);
+        }finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(int itemId){
+        lock.writeLock().lock();
+        try{
+            tree.remove(itemId);
+        }finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //편집 거리가 가까운 순, 같으면 리뷰 많은 순
+    public List<ItemSummaryDto> search(String query){
+        String normalized = ItemSearchIndex.normalize(query);
+        if(normalized.length() < MIN_QUERY_LENGTH){
+            return Collections.emptyList();
+        }
+        int maxDistance = normalized.length() <= MIN_QUERY_LENGTH ? 1 : 2;
+
+        Map<Integer, Match> matches = new HashMap<>();
+
+        lock.readLock().lock();
+        try{
+            if(tree.root == null){
+                return Collections.emptyList();
+            }
+
+            List<Node> stack = new ArrayList<>();
+            stack.add(tree.root);
+            while(!stack.isEmpty()){
+                Node node = stack.remove(stack.size() - 1);
+                int distance = distance(normalized, node.term);
+
+                if(distance <= maxDistance){
+                    for(Integer id : node.itemIds){
+                        Match previous = matches.get(id);
+                        if(previous == null || distance < previous.distance()){
+                            matches.put(id, new Match(tree.items.get(id), distance));
+                        }
+                    }
+                }
+
+                int from = Math.max(1, distance - maxDistance);
+                int to = Math.min(node.children.length - 1, distance + maxDistance);
+                for(int edge = from; edge <= to; edge++){
+                    if(node.children[edge] != null){
+                        stack.add(node.children[edge]);
+                    }
+                }
+            }
+        }finally {
+            lock.readLock().unlock();
+        }
+
+        List<Match> sorted = new ArrayList<>(matches.values());
+        sorted.sort(MATCH_ORDER);
+
+        List<ItemSummaryDto> result = new ArrayList<>(sorted.size());
+        for(Match match : sorted){
+            result.add(match.item());
+        }
+        return result;
+    }
+
+    //글자 단위 Levenshtein 거리 (행 두 개만 사용)
+    static int distance(String a, String b){
+        if(a.length() < b.length()){
+            String tmp = a;
+            a = b;
+            b = tmp;
+        }
+
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for(int j = 0; j <= b.length(); j++){
+            previous[j] = j;
+        }
+
+        for(int i = 1; i <= a.length(); i++){
+            current[0] = i;
+            char ca = a.charAt(i - 1);
+            for(int j = 1; j <= b.length(); j++){
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] tmp = previous;
+            previous = current;
+            current = tmp;
+        }
+        return previous[b.length()];
+    }
+
+    //상품명 전체(공백 제거) + 2글자 이상 토큰
+    static Set<String> termsOf(String itemName){
+        Set<String> terms = new LinkedHashSet<>();
+        String name = ItemSearchIndex.normalize(itemName);
+        if(name.isEmpty()){
+            return terms;
+        }
+        terms.add(name);
+
+        for(String token : itemName.trim().split("\\s+")){
+            String term = ItemSearchIndex.normalize(token);
+            if(term.length() >= 2){
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private static final class Tree {
+
+        private Node root;
+        private final Map<String, Node> nodes = new HashMap<>();
+        private final Map<Integer, ItemSummaryDto> items = new HashMap<>();
+        private final Map<Integer, Set<String>> termsByItem = new HashMap<>();
+
+        private void add(ItemSummaryDto item){
+            Set<String> terms = termsOf(item.itemName());
+            items.put(item.id(), item);
+            termsByItem.put(item.id(), terms);
+            for(String term : terms){
+                nodeOf(term).itemIds.add(item.id());
+            }
+        }
+
+        private void remove(int itemId){
+            items.remove(itemId);
+            Set<String> terms = termsByItem.remove(itemId);
+            if(terms == null){
+                return;
+            }
+            for(String term : terms){
+                nodes.get(term).itemIds.remove(itemId);
+            }
+        }
+
+        private Node nodeOf(String term){
+            Node existing = nodes.get(term);
+            if(existing != null){
+                return existing;
+            }
+
+            Node node = new Node(term);
+            nodes.put(term, node);
+            if(root == null){
+                root = node;
+                return node;
+            }
+
+            Node parent = root;
+            while(true){
+                int edge = distance(term, parent.term);
+                Node child = parent.child(edge);
+                if(child == null){
+                    parent.setChild(edge, node);
+                    return node;
+                }
+                parent = child;
+            }
+        }
+    }
+
+    private static final class Node {
+
+        private final String term;
+        private final Set<Integer> itemIds = new HashSet<>();
+        //간선 거리 -> 자식 (거리는 단어 길이 이하의 작은 정수)
+        private Node[] children = new Node[0];
+
+        private Node(String term) {
+            this.term = term;
+        }
+
+        private Node child(int edge){
+            return edge < children.length ? children[edge] : null;
+        }
+
+        private void setChild(int edge, Node child){
+            if(edge >= children.length){
+                children = Arrays.copyOf(children, edge + 1);
+            }
+            children[edge] = child;
+        }
+    }
+
+    private static final Comparator<Match> MATCH_ORDER = Comparator
+            .comparingInt(Match::distance)
+            .thenComparing(Comparator.comparingInt((Match match) -> match.item().commentCount()).reversed())
+            .thenComparing(match -> match.item().id());
+
+    private record Match(ItemSummaryDto item, int distance) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.teamproject.back.service.search;
+
+import com.teamproject.back.dto.ItemSummaryDto;
+
+import java.util.Collection;
+
+//상품 검색용 인메모리 색인 공통 인터페이스
+//ItemSearchIndexer 가 기동 시 전체 적재, 상품 등록/수정/삭제 시 증분 반영을 모든 구현체에 전달
+public interface ItemIndex {
+
+    //전체 교체 (기동 시, 주기적 재적재)
+    void replaceAll(Collection<ItemSummaryDto> items);
+
+    //등록 또는 수정
+    void put(ItemSummaryDto item);
+
+    void remove(int itemId);
+}
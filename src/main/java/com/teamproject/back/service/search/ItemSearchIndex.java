@@ -0,0 +1,160 @@
+package com.teamproject.back.service.search;
+
+import com.teamproject.back.dto.ItemSummaryDto;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//상품명 n-gram 역색인 (LIKE '%검색어%' 대체)
+//상품명을 정규화(소문자, 공백 제거)한 뒤 글자 1개(unigram), 2개(bigram) 단위로 상품 id 를 색인
+//한글은 형태소 분석 없이도 2글자 단위로 부분 일치 검색 가능
+//검색어가 2글자 이상이면 검색어 bigram 중 가장 짧은 posting 만 순회하며 contains 로 최종 확인 (NgramPostings)
+//정렬 : 완전 일치 > 앞부분 일치 > 부분 일치, 같은 등급이면 일치 위치가 앞설수록, 이름이 짧을수록 우선
+@Component
+public class ItemSearchIndex implements ItemIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    //상품 id -> 색인 문서 (검색 결과를 DB 없이 바로 응답하기 위한 스냅샷)
+    private Map<Integer, Document> documents = new HashMap<>();
+    //gram -> 상품 id 목록
+    private NgramPostings postings = new NgramPostings();
+
+    @Override
+    public void replaceAll(Collection<ItemSummaryDto> items){
+        //새 색인은 락 밖에서 만들고 교체만 쓰기 락 안에서 수행
+        NgramPostings newPostings = new NgramPostings();
+        Map<Integer, Document> newDocuments = new HashMap<>(items.size() * 2);
+        for(ItemSummaryDto item : items){
+            Document document = new Document(item, normalize(item.itemName()));
+            newDocuments.put(item.id(), document);
+            newPostings.add(item.id(), document.name());
+        }
+
+        lock.writeLock().lock();
+        try{
+            documents = newDocuments;
+            postings = newPostings;
+        }finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(ItemSummaryDto item){
+        Document document = new Document(item, normalize(item.itemName()));
+
+        lock.writeLock().lock();
+        try{
+            Document previous = documents.put(item.id(), document);
+            if(previous != null){
+                postings.remove(item.id(), previous.name());
+            }
+            postings.add(item.id(), document.name());
+        }finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(int itemId){
+        lock.writeLock().lock();
+        try{
+            Document previous = documents.remove(itemId);
+            if(previous != null){
+                postings.remove(itemId, previous.name());
+            }
+        }finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //일치 등급 순으로 정렬된 전체 결과
+    public List<ItemSummaryDto> search(String query){
+        String normalized = normalize(query);
+        if(normalized.isEmpty()){
+            return Collections.emptyList();
+        }
+
+        List<Match> matches = new ArrayList<>();
+
+        lock.readLock().lock();
+        try{
+            Set<Integer> candidates = postings.candidates(normalized);
+            if(candidates == null){
+                return Collections.emptyList();
+            }
+
+            for(Integer id : candidates){
+                Document document = documents.get(id);
+                int position = document.name().indexOf(normalized);
+                if(position < 0){
+                    continue;
+                }
+                matches.add(new Match(document, rankOf(document.name(), normalized, position), position));
+            }
+        }finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(MATCH_ORDER);
+
+        List<ItemSummaryDto> result = new ArrayList<>(matches.size());
+        for(Match match : matches){
+            result.add(match.document().item());
+        }
+        return result;
+    }
+
+    public int size(){
+        lock.readLock().lock();
+        try{
+            return documents.size();
+        }finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //소문자 + 공백 제거 ("덤벨 5KG" -> "덤벨5kg")
+    static String normalize(String text){
+        if(text == null){
+            return "";
+        }
+
+        StringBuilder sb = new StringBuilder(text.length());
+        for(int i = 0; i < text.length(); i++){
+            char c = text.charAt(i);
+            if(!Character.isWhitespace(c)){
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    static int rankOf(String name, String query, int position){
+        if(name.length() == query.length()){
+            return 0;
+        }
+        return position == 0 ? 1 : 2;
+    }
+
+    private static final Comparator<Match> MATCH_ORDER = Comparator
+            .comparingInt(Match::rank)
+            .thenComparingInt(Match::position)
+            .thenComparingInt(match -> match.document().name().length())
+            .thenComparing(match -> match.document().item().id());
+
+    private record Document(ItemSummaryDto item, String name) {
+    }
+
+    private record Match(Document document, int rank, int position) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.teamproject.back.service.search;
+
+import com.teamproject.back.dto.ItemSummaryDto;
+import com.teamproject.back.repository.ItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+//상품 검색 색인(ItemIndex 구현체 전체) 적재 및 증분 반영
+//기동 시 전체 적재, 상품 등록/수정/삭제 시 해당 상품만 반영
+//다른 서버에서 변경된 상품, 댓글로 바뀐 평점/리뷰 수는 주기적 전체 재적재로 맞춤
+//색인 변경은 모두 이 클래스에서 직렬화 (재적재 도중 증분 반영이 유실되지 않도록)
+@Component
+@Slf4j
+public class ItemSearchIndexer {
+
+    private final ItemRepository itemRepository;
+    private final List<ItemIndex> indexes;
+
+    private volatile boolean ready;
+
+    @Autowired
+    public ItemSearchIndexer(ItemRepository itemRepository, List<ItemIndex> indexes) {
+        this.itemRepository = itemRepository;
+        this.indexes = indexes;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load(){
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${item.search.rebuild-interval-ms:600000}",
+               fixedDelayString = "${item.search.rebuild-interval-ms:600000}")
+    public synchronized void rebuild(){
+        long start = System.currentTimeMillis();
+        List<ItemSummaryDto> items = itemRepository.findAllItemSummaries();
+        for(ItemIndex index : indexes){
+            index.replaceAll(items);
+        }
+        ready = true;
+        log.info("상품 검색 색인 적재 완료 : {}건, {}ms", items.size(), System.currentTimeMillis() - start);
+    }
+
+    //저장/수정이 커밋된 뒤 호출
+    public synchronized void refresh(int itemId){
+        ItemSummaryDto item = itemRepository.findItemSummaryById(itemId);
+        if(item == null){
+            remove(itemId);
+            return;
+        }
+
+        for(ItemIndex index : indexes){
+            index.put(item);
+        }
+    }
+
+    public synchronized void remove(int itemId){
+        for(ItemIndex index : indexes){
+            index.remove(itemId);
+        }
+    }
+
+    //최초 적재 전에는 DB 검색으로 대체
+    public boolean isReady(){
+        return ready;
+    }
+}
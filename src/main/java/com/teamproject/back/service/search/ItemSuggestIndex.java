@@ -0,0 +1,308 @@
+package com.teamproject.back.service.search;
+
+import com.teamproject.back.dto.ItemSuggestionDto;
+import com.teamproject.back.dto.ItemSummaryDto;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//자동완성용 접두사 트라이 (상품명 + 브랜드)
+//가중치 = 리뷰 수 (같은 이름/브랜드의 상품이 여러 개면 합산)
+//노드마다 하위 전체에서 가중치 상위 MAX_SUGGESTIONS 개를 미리 계산해 두므로
+//조회는 검색어 길이만큼 노드를 따라간 뒤 배열을 복사하는 비용뿐 (상품 수와 무관)
+//변경 시에는 바뀐 단어의 경로 노드만 아래에서 위로 다시 계산
+@Component
+public class ItemSuggestIndex implements ItemIndex {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final Term[] NO_TERMS = new Term[0];
+
+    private static final Comparator<Term> TERM_ORDER = Comparator
+            .comparingLong((Term term) -> term.weight).reversed()
+            .thenComparingInt(term -> term.key.length())
+            .thenComparing(term -> term.key)
+            .thenComparing(term -> term.type);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Trie trie = new Trie();
+
+    @Override
+    public void replaceAll(Collection<ItemSummaryDto> items){
+        Trie newTrie = new Trie();
+        for(ItemSummaryDto item : items){
+            newTrie.add(item, false);
+        }
+        newTrie.recomputeAll(newTrie.root);
+
+        lock.writeLock().lock();
+        try{
+            trie = newTrie;
+        }finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(ItemSummaryDto item){
+        lock.writeLock().lock();
+        try{
+            trie.remove(item.id());
+            trie.add(item, true);
+        }finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(int itemId){
+        lock.writeLock().lock();
+        try{
+            trie.remove(itemId);
+        }finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //prefix 로 시작하는 상품명/브랜드 중 가중치 상위 limit 개
+    public List<ItemSuggestionDto> suggest(String prefix, int limit){
+        String key = ItemSearchIndex.normalize(prefix);
+        if(key.isEmpty() || limit < 1){
+            return Collections.emptyList();
+        }
+
+        Term[] top;
+        lock.readLock().lock();
+        try{
+            Node node = trie.find(key);
+            if(node == null){
+                return Collections.emptyList();
+            }
+            top = node.top;
+        }finally {
+            lock.readLock().unlock();
+        }
+
+        //top 배열은 교체만 되고 수정되지 않으므로 락 밖에서 읽어도 안전
+        int count = Math.min(limit, top.length);
+        List<ItemSuggestionDto> suggestions = new ArrayList<>(count);
+        for(int i = 0; i < count; i++){
+            suggestions.add(new ItemSuggestionDto(top[i].text, top[i].type));
+        }
+        return suggestions;
+    }
+
+    private static final class Trie {
+
+        private final Node root = new Node();
+        private final Map<String, Term> terms = new HashMap<>();
+        //상품 id -> 해당 상품이 더한 가중치 (수정/삭제 시 되돌리기 위함)
+        private final Map<Integer, Contribution> contributions = new HashMap<>();
+
+        private void add(ItemSummaryDto item, boolean recompute){
+            long weight = Math.max(item.commentCount(), 0);
+            Term name = addTerm("item", item.itemName(), weight, recompute);
+            Term brand = addTerm("brand", item.itemBrand(), weight, recompute);
+            contributions.put(item.id(), new Contribution(name, brand, weight));
+        }
+
+        private void remove(int itemId){
+            Contribution contribution = contributions.remove(itemId);
+            if(contribution == null){
+                return;
+            }
+            removeTerm(contribution.name(), contribution.weight());
+            removeTerm(contribution.brand(), contribution.weight());
+        }
+
+        private Term addTerm(String type, String text, long weight, boolean recompute){
+            String key = ItemSearchIndex.normalize(text);
+            if(key.isEmpty()){
+                return null;
+            }
+
+            Term term = terms.get(type + ":" + key);
+            if(term == null){
+                term = new Term(type, key, text.trim());
+                terms.put(type + ":" + key, term);
+                insert(key).addTerminal(term);
+            }
+            term.refs++;
+            term.weight += weight;
+
+            if(recompute){
+                recomputePath(key);
+            }
+            return term;
+        }
+
+        private void removeTerm(Term term, long weight){
+            if(term == null){
+                return;
+            }
+
+            term.refs--;
+            term.weight -= weight;
+            if(term.refs == 0){
+                terms.remove(term.type + ":" + term.key);
+                find(term.key).removeTerminal(term);
+            }
+            recomputePath(term.key);
+        }
+
+        private Node insert(String key){
+            Node node = root;
+            for(int i = 0; i < key.length(); i++){
+                node = node.childOrCreate(key.charAt(i));
+            }
+            return node;
+        }
+
+        private Node find(String key){
+            Node node = root;
+            for(int i = 0; i < key.length() && node != null; i++){
+                node = node.child(key.charAt(i));
+            }
+            return node;
+        }
+
+        //key 경로의 노드를 깊은 곳부터 다시 계산
+        private void recomputePath(String key){
+            Node[] path = new Node[key.length() + 1];
+            path[0] = root;
+            for(int i = 0; i < key.length(); i++){
+                path[i + 1] = path[i].child(key.charAt(i));
+            }
+            for(int i = path.length - 1; i >= 0; i--){
+                path[i].recompute();
+            }
+        }
+
+        private void recomputeAll(Node node){
+            for(int i = 0; i < node.childCount; i++){
+                recomputeAll(node.children[i]);
+            }
+            node.recompute();
+        }
+    }
+
+    private static final class Node {
+
+        //keys 는 정렬 상태 유지 (이진 탐색)
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private int childCount;
+
+        private Term[] terminals = NO_TERMS;
+        private Term[] top = NO_TERMS;
+
+        private Node child(char c){
+            int index = Arrays.binarySearch(keys, 0, childCount, c);
+            return index < 0 ? null : children[index];
+        }
+
+        private Node childOrCreate(char c){
+            int index = Arrays.binarySearch(keys, 0, childCount, c);
+            if(index >= 0){
+                return children[index];
+            }
+
+            int insertAt = -index - 1;
+            if(childCount == keys.length){
+                int capacity = Math.max(2, childCount * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, insertAt, keys, insertAt + 1, childCount - insertAt);
+            System.arraycopy(children, insertAt, children, insertAt + 1, childCount - insertAt);
+
+            Node node = new Node();
+            keys[insertAt] = c;
+            children[insertAt] = node;
+            childCount++;
+            return node;
+        }
+
+        private void addTerminal(Term term){
+            terminals = Arrays.copyOf(terminals, terminals.length + 1);
+            terminals[terminals.length - 1] = term;
+        }
+
+        private void removeTerminal(Term term){
+            Term[] remaining = new Term[terminals.length - 1];
+            int index = 0;
+            for(Term terminal : terminals){
+                if(terminal != term){
+                    remaining[index++] = terminal;
+                }
+            }
+            terminals = remaining;
+        }
+
+        //자기 단어 + 자식들의 top 중 상위 MAX_SUGGESTIONS 개
+        //단어 없이 자식이 하나뿐인 노드는 자식 배열을 그대로 공유 (긴 꼬리 경로의 메모리 절약)
+        private void recompute(){
+            if(terminals.length == 0 && childCount == 1){
+                top = children[0].top;
+                return;
+            }
+
+            Term[] best = new Term[MAX_SUGGESTIONS];
+            int size = 0;
+            for(Term term : terminals){
+                size = offer(best, size, term);
+            }
+            for(int i = 0; i < childCount; i++){
+                for(Term term : children[i].top){
+                    //자식 top 은 정렬되어 있으므로 더 이상 들어갈 수 없으면 중단
+                    if(size == MAX_SUGGESTIONS && TERM_ORDER.compare(term, best[size - 1]) >= 0){
+                        break;
+                    }
+                    size = offer(best, size, term);
+                }
+            }
+            top = size == 0 ? NO_TERMS : Arrays.copyOf(best, size);
+        }
+
+        //정렬 상태를 유지하며 삽입, 넘치면 마지막 항목 탈락
+        private static int offer(Term[] best, int size, Term term){
+            if(size == best.length && TERM_ORDER.compare(term, best[size - 1]) >= 0){
+                return size;
+            }
+            int position = size == best.length ? size - 1 : size;
+            while(position > 0 && TERM_ORDER.compare(term, best[position - 1]) < 0){
+                best[position] = best[position - 1];
+                position--;
+            }
+            best[position] = term;
+            return size == best.length ? size : size + 1;
+        }
+    }
+
+    private static final class Term {
+
+        private final String type;
+        private final String key;
+        private final String text;
+        private long weight;
+        private int refs;
+
+        private Term(String type, String key, String text) {
+            this.type = type;
+            this.key = key;
+            this.text = text;
+        }
+    }
+
+    private record Contribution(Term name, Term brand, long weight) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.teamproject.back.service.search;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+//문자열 키의 unigram/bigram -> 상품 id 역색인
+//동기화는 사용하는 색인 클래스에서 담당
+class NgramPostings {
+
+    private final Map<String, Set<Integer>> postings = new HashMap<>();
+
+    void add(int id, String key){
+        for(String gram : gramsOf(key)){
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+        }
+    }
+
+    void remove(int id, String key){
+        for(String gram : gramsOf(key)){
+            Set<Integer> posting = postings.get(gram);
+            if(posting == null){
+                continue;
+            }
+            posting.remove(id);
+            if(posting.isEmpty()){
+                postings.remove(gram);
+            }
+        }
+    }
+
+    //검색어를 포함할 수 있는 후보 = 검색어 gram 중 posting 이 가장 작은 것
+    //하나라도 없으면 null, 후보는 호출한 쪽에서 최종 확인해야 함
+    Set<Integer> candidates(String query){
+        if(query.length() == 1){
+            return postings.get(query);
+        }
+
+        Set<Integer> smallest = null;
+        for(int i = 0; i + 1 < query.length(); i++){
+            Set<Integer> posting = postings.get(query.substring(i, i + 2));
+            if(posting == null){
+                return null;
+            }
+            if(smallest == null || posting.size() < smallest.size()){
+                smallest = posting;
+            }
+        }
+        return smallest;
+    }
+
+    private static Set<String> gramsOf(String key){
+        Set<String> grams = new HashSet<>();
+        for(int i = 0; i < key.length(); i++){
+            grams.add(key.substring(i, i + 1));
+            if(i + 1 < key.length()){
+                grams.add(key.substring(i, i + 2));
+            }
+        }
+        return grams;
+    }
+}
@@ -7,34 +7,104 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.InvalidKeyException;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
 
+//개인정보 컬럼 암호화
+//저장 형식 : "v{키 버전}:" + Base64(IV 12byte + 암호문 + 인증 태그) (AES-GCM, 같은 값도 매번 다른 암호문)
+//암호화는 항상 현재 키 (aes.active-key-version), 복호화는 접두어의 버전 키로 함
+//-> 새 키를 추가하고 현재 키 버전을 올린 뒤 UserKeyRotationJob 으로 기존 행을 천천히 다시 암호화
+//키 목록 : 1 = aes.secret, 그 외는 aes.key-ring ("2:키,3:키")
+//접두어가 없는 값은 이전 형식 (AES/ECB, 1번 키, 같은 값 -> 같은 암호문) 으로 보고 복호화
+//암호문이 매번 달라지므로 동등 비교 조회는 blindIndex (HMAC) 컬럼으로 함
+//blindIndex 키 (aes.blind-index-secret) 는 암호화 키와 별도로 필수, 키 목록의 어떤 키와도 같으면 안 됨
+//-> 암호화 키를 교체/폐기해도 email_hash 가 바뀌지 않음 (바뀌면 이메일 조회, 로그인이 모두 실패)
+//키는 기동 시 한 번만 SecretKeySpec 으로 만들고, Cipher/Mac 은 스레드마다 하나씩 만들어 재사용
+//(Cipher.getInstance 는 provider 조회 + 객체 생성 비용이 크고, Cipher/Mac 은 스레드 안전하지 않음)
 @Component
 @Slf4j
 public class AesUtil {
 
     private static final String ALGORITHM = "AES";
+    private static final String GCM_ALGORITHM = "AES/GCM/NoPadding";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int LEGACY_KEY_VERSION = 1;
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BIT = 128;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    private static final ThreadLocal<Cipher> GCM_CIPHER = ThreadLocal.withInitial(() -> newCipher(GCM_ALGORITHM));
+    private static final ThreadLocal<Cipher> LEGACY_CIPHER = ThreadLocal.withInitial(() -> newCipher(ALGORITHM));
+    //키가 바뀌면 (init 재호출) 다시 만듦
+    private static final ThreadLocal<KeyedMac> BLIND_INDEX_MAC = new ThreadLocal<>();
+
     @Value("${aes.secret}")
     private String SECRET;
+    @Value("${aes.key-ring:}")
+    private String KEY_RING;
+    @Value("${aes.active-key-version:1}")
+    private int ACTIVE_KEY_VERSION;
+    //암호화 키와 다른 별도 키 (필수)
+    @Value("${aes.blind-index-secret:}")
+    private String BLIND_INDEX_SECRET;
 
-    private static String SECRET_KEY;
+    private static volatile KeyRing KEYS;
+    private static volatile SecretKeySpec BLIND_INDEX_KEY;
 
     @PostConstruct
     public void init(){
-        SECRET_KEY = SECRET;
+        Map<Integer, SecretKeySpec> keys = new HashMap<>();
+        keys.put(LEGACY_KEY_VERSION, new SecretKeySpec(SECRET.getBytes(), ALGORITHM));
+        if(KEY_RING != null && !KEY_RING.isBlank()){
+            for(String entry : KEY_RING.split(",")){
+                String[] versionAndKey = entry.trim().split(":", 2);
+                if(versionAndKey.length != 2){
+                    throw new IllegalArgumentException("aes.key-ring 형식이 맞지 않습니다 -> 버전:키,버전:키");
+                }
+                keys.put(Integer.parseInt(versionAndKey[0].trim()), new SecretKeySpec(versionAndKey[1].trim().getBytes(), ALGORITHM));
+            }
+        }
+        if(!keys.containsKey(ACTIVE_KEY_VERSION)){
+            throw new IllegalArgumentException("현재 키 버전의 키가 없습니다 : " + ACTIVE_KEY_VERSION);
+        }
+
+        if(BLIND_INDEX_SECRET == null || BLIND_INDEX_SECRET.isBlank()){
+            throw new IllegalArgumentException("aes.blind-index-secret 가 없습니다 (암호화 키와 다른 별도 키 필요)");
+        }
+        for(Map.Entry<Integer, SecretKeySpec> key : keys.entrySet()){
+            if(MessageDigest.isEqual(BLIND_INDEX_SECRET.getBytes(), key.getValue().getEncoded())){
+                throw new IllegalArgumentException("aes.blind-index-secret 가 암호화 키와 같습니다 : " + key.getKey() + "번 키");
+            }
+        }
+
+        KEYS = new KeyRing(Map.copyOf(keys), ACTIVE_KEY_VERSION, "v" + ACTIVE_KEY_VERSION + ":");
+        BLIND_INDEX_KEY = new SecretKeySpec(BLIND_INDEX_SECRET.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
     }
 
     public static String encrypt(String input){
         try{
-            SecretKeySpec keySpec = new SecretKeySpec(SECRET_KEY.getBytes(), ALGORITHM);
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            cipher.init(Cipher.ENCRYPT_MODE, keySpec);
-            byte[] encryptedBytes = cipher.doFinal(input.getBytes());
-            return Base64.getEncoder().encodeToString(encryptedBytes);
+            byte[] plainBytes = input.getBytes(StandardCharsets.UTF_8);
+            byte[] iv = new byte[IV_LENGTH];
+            SECURE_RANDOM.nextBytes(iv);
+
+            KeyRing keys = KEYS;
+            Cipher cipher = GCM_CIPHER.get();
+            cipher.init(Cipher.ENCRYPT_MODE, keys.activeKey(), new GCMParameterSpec(TAG_LENGTH_BIT, iv));
+
+            //IV 뒤에 바로 암호문을 씀 (중간 배열 복사 없음)
+            byte[] output = new byte[IV_LENGTH + cipher.getOutputSize(plainBytes.length)];
+            System.arraycopy(iv, 0, output, 0, IV_LENGTH);
+            cipher.doFinal(plainBytes, 0, plainBytes.length, output, IV_LENGTH);
+            return keys.activePrefix() + Base64.getEncoder().encodeToString(output);
         } catch(InvalidKeyException e){
             log.info("SECRET_KEY의 문자열 길이가 맞지 않습니다 -> 16, 24, 32");
             throw new IllegalArgumentException("SECRET_KEY의 문자열 길이가 맞지 않습니다 -> 16, 24, 32.", e);
@@ -46,11 +116,92 @@ public class AesUtil {
     }
 
     public static String decrypt(String encryptedInput) {
+        int separator = versionSeparatorOf(encryptedInput);
+        if(separator < 0){
+            return decryptLegacy(encryptedInput);
+        }
 
         try{
-            SecretKeySpec keySpec = new SecretKeySpec(SECRET_KEY.getBytes(), ALGORITHM);
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            cipher.init(Cipher.DECRYPT_MODE, keySpec);
+            int version = Integer.parseInt(encryptedInput, 1, separator, 10);
+            SecretKeySpec key = KEYS.keys().get(version);
+            if(key == null){
+                log.info("없는 키 버전 : {}", version);
+                throw new SecurityException("없는 키 버전 : " + version);
+            }
+            byte[] input = Base64.getDecoder().decode(encryptedInput.substring(separator + 1));
+
+            Cipher cipher = GCM_CIPHER.get();
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BIT, input, 0, IV_LENGTH));
+            byte[] decryptedBytes = cipher.doFinal(input, IV_LENGTH, input.length - IV_LENGTH);
+            return new String(decryptedBytes, StandardCharsets.UTF_8);
+        } catch(InvalidKeyException e){
+            log.info("SECRET_KEY의 문자열 길이가 맞지 않습니다 -> 16, 24, 32");
+            throw new IllegalArgumentException("SECRET_KEY의 문자열 길이가 맞지 않습니다 -> 16, 24, 32", e);
+        }catch(BadPaddingException e){
+            log.info("암호화에서 사용한 KEY 값과 다르거나 변조된 값입니다.");
+            throw new SecurityException("암호화에서 사용한 KEY 값과 다르거나 변조된 값입니다.", e);
+        }catch(SecurityException e){
+            throw e;
+        } catch(Exception e){
+            log.info("복호화 실패");
+            throw new SecurityException("복호화 실패", e);
+        }
+    }
+
+    //현재 키로 암호화된 값인지 (아니면 키 교체 대상)
+    public static boolean isCurrentFormat(String encryptedInput){
+        return encryptedInput != null && encryptedInput.startsWith(KEYS.activePrefix());
+    }
+
+    public static int activeKeyVersion(){
+        return KEYS.activeVersion();
+    }
+
+    //"v{숫자}:" 접두어의 ':' 위치, 이전 형식이면 -1
+    private static int versionSeparatorOf(String encryptedInput){
+        if(encryptedInput == null || encryptedInput.length() < 3 || encryptedInput.charAt(0) != 'v'){
+            return -1;
+        }
+        int i = 1;
+        while(i < encryptedInput.length() && Character.isDigit(encryptedInput.charAt(i))){
+            i++;
+        }
+        return i > 1 && i < encryptedInput.length() && encryptedInput.charAt(i) == ':' ? i : -1;
+    }
+
+    //동등 비교 조회용 키 HMAC (같은 값 -> 같은 결과, 키 없이는 원문 추측 불가)
+    //Base64 44자
+    public static String blindIndex(String input){
+        try{
+            //doFinal 후 Mac 은 초기화 직후 상태로 돌아가므로 키 설정 없이 바로 재사용
+            return Base64.getEncoder().encodeToString(blindIndexMac().doFinal(input.getBytes(StandardCharsets.UTF_8)));
+        }catch(Exception e){
+            log.info("HMAC 계산 실패");
+            throw new SecurityException("HMAC 계산 실패", e);
+        }
+    }
+
+    //이전 형식 (AES/ECB) 암호화
+    //blindIndex 이관 전 데이터를 기존 암호문으로 찾을 때만 사용
+    public static String encryptLegacy(String input){
+        try{
+            Cipher cipher = LEGACY_CIPHER.get();
+            cipher.init(Cipher.ENCRYPT_MODE, KEYS.keys().get(LEGACY_KEY_VERSION));
+            byte[] encryptedBytes = cipher.doFinal(input.getBytes());
+            return Base64.getEncoder().encodeToString(encryptedBytes);
+        } catch(InvalidKeyException e){
+            log.info("SECRET_KEY의 문자열 길이가 맞지 않습니다 -> 16, 24, 32");
+            throw new IllegalArgumentException("SECRET_KEY의 문자열 길이가 맞지 않습니다 -> 16, 24, 32.", e);
+        }catch(Exception e){
+            log.info("암호화 실패");
+            throw new SecurityException("암호화 실패", e);
+        }
+    }
+
+    private static String decryptLegacy(String encryptedInput) {
+        try{
+            Cipher cipher = LEGACY_CIPHER.get();
+            cipher.init(Cipher.DECRYPT_MODE, KEYS.keys().get(LEGACY_KEY_VERSION));
             byte[] encryptedBytes = Base64.getDecoder().decode(encryptedInput);
             byte[] decryptedBytes = cipher.doFinal(encryptedBytes);
             return new String(decryptedBytes);
@@ -67,4 +218,34 @@ public class AesUtil {
 
     }
 
+    private static Mac blindIndexMac() throws GeneralSecurityException {
+        SecretKeySpec key = BLIND_INDEX_KEY;
+        KeyedMac keyedMac = BLIND_INDEX_MAC.get();
+        if(keyedMac == null || keyedMac.key() != key){
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            keyedMac = new KeyedMac(key, mac);
+            BLIND_INDEX_MAC.set(keyedMac);
+        }
+        return keyedMac.mac();
+    }
+
+    private static Cipher newCipher(String algorithm){
+        try{
+            return Cipher.getInstance(algorithm);
+        }catch(GeneralSecurityException e){
+            throw new SecurityException("Cipher 생성 실패 : " + algorithm, e);
+        }
+    }
+
+    private record KeyedMac(SecretKeySpec key, Mac mac) {
+    }
+
+    private record KeyRing(Map<Integer, SecretKeySpec> keys, int activeVersion, String activePrefix) {
+
+        private SecretKeySpec activeKey(){
+            return keys.get(activeVersion);
+        }
+    }
+
 }
@@ -0,0 +1,77 @@
+package com.teamproject.back.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+//최대 개수를 넘으면 가장 오래 사용하지 않은 항목부터 제거하는 LRU 캐시
+//조회도 접근 순서를 바꾸므로 모든 연산을 동기화
+public class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final LinkedHashMap<K, V> map;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    public BoundedCache(int maxSize) {
+        if(maxSize < 1){
+            throw new IllegalArgumentException("maxSize must be positive.");
+        }
+        this.maxSize = maxSize;
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if(size() > BoundedCache.this.maxSize){
+                    evictionCount.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    //없으면 null
+    public synchronized V get(K key){
+        V value = map.get(key);
+        if(value == null){
+            missCount.increment();
+        }else{
+            hitCount.increment();
+        }
+        return value;
+    }
+
+    public synchronized void put(K key, V value){
+        map.put(key, value);
+    }
+
+    public synchronized void remove(K key){
+        map.remove(key);
+    }
+
+    public synchronized void clear(){
+        map.clear();
+    }
+
+    public synchronized int size(){
+        return map.size();
+    }
+
+    public int getMaxSize(){
+        return maxSize;
+    }
+
+    public long getHitCount(){
+        return hitCount.sum();
+    }
+
+    public long getMissCount(){
+        return missCount.sum();
+    }
+
+    public long getEvictionCount(){
+        return evictionCount.sum();
+    }
+}
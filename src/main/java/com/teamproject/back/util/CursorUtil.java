@@ -0,0 +1,24 @@
+package com.teamproject.back.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+//커서 페이지네이션의 next 토큰 인코딩/디코딩
+//클라이언트에게는 불투명한 문자열로만 전달
+public class CursorUtil {
+
+    private static final String DELIMITER = "|";
+
+    public static String encode(String... values){
+        String joined = String.join(DELIMITER, values);
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(joined.getBytes(StandardCharsets.UTF_8));
+    }
+
+    //잘못된 토큰이면 IllegalArgumentException
+    public static String[] decode(String cursor){
+        byte[] decoded = Base64.getUrlDecoder().decode(cursor);
+        return new String(decoded, StandardCharsets.UTF_8).split("\\|", -1);
+    }
+}
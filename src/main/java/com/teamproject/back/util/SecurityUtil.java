@@ -0,0 +1,23 @@
+package com.teamproject.back.util;
+
+import com.teamproject.back.jwt.JwtPrincipal;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+public class SecurityUtil {
+
+    //인증된 회원 id (JWT userId 클레임), 클레임이 없거나 인증 전이면 null
+    //DB 조회, 이메일 암호화 없이 바로 사용 가능
+    public static Long currentUserId(){
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if(authentication != null && authentication.getPrincipal() instanceof JwtPrincipal principal){
+            return principal.getUserId();
+        }
+        return null;
+    }
+
+    public static String currentEmail(){
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? null : authentication.getName();
+    }
+}
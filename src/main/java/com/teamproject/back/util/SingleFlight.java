@@ -0,0 +1,89 @@
+package com.teamproject.back.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+//같은 키로 동시에 들어온 요청은 먼저 들어온 하나만 실행하고 나머지는 그 결과를 함께 사용
+//실행이 끝나면 키를 바로 제거하므로 결과를 보관하지 않음 (캐시 아님, 오래된 값 재사용 없음)
+//기다리던 요청은 timeoutMillis 가 지나면 직접 실행 (느린 요청 하나에 전부 묶이지 않도록)
+//먼저 실행한 요청이 예외로 끝나면 기다리던 요청도 같은 예외
+public class SingleFlight<K, V> {
+
+    private final long timeoutMillis;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder executedCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+
+    public SingleFlight(long timeoutMillis) {
+        if(timeoutMillis < 1){
+            throw new IllegalArgumentException("timeoutMillis must be positive.");
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public V execute(K key, Supplier<V> loader){
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if(existing == null){
+            return run(key, flight, loader);
+        }
+
+        coalescedCount.increment();
+        try{
+            return existing.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        }catch(TimeoutException e){
+            timeoutCount.increment();
+            executedCount.increment();
+            return loader.get();
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + key, e);
+        }catch(ExecutionException e){
+            Throwable cause = e.getCause();
+            if(cause instanceof RuntimeException runtimeException){
+                throw runtimeException;
+            }
+            if(cause instanceof Error error){
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private V run(K key, CompletableFuture<V> flight, Supplier<V> loader){
+        executedCount.increment();
+        try{
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        }catch(RuntimeException | Error e){
+            flight.completeExceptionally(e);
+            throw e;
+        }finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    public int getInFlightCount(){
+        return inFlight.size();
+    }
+
+    public long getExecutedCount(){
+        return executedCount.sum();
+    }
+
+    public long getCoalescedCount(){
+        return coalescedCount.sum();
+    }
+
+    public long getTimeoutCount(){
+        return timeoutCount.sum();
+    }
+}
@@ -21,6 +21,8 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -66,7 +68,7 @@ class AuthControllerTest {
 
         //when
         when(authService.login(userDto.getEmail(), userDto.getPassword())).thenReturn(userDto);
-        when(jwtTokenProvider.createJwtCookie(userDto.getEmail(),userDto.getRole())).thenReturn(new Cookie("test","test"));
+        when(jwtTokenProvider.createJwtCookie(any(), eq(userDto.getEmail()), eq(userDto.getRole()))).thenReturn(new Cookie("test","test"));
 
         //then
         mvc.perform(post("/api/auth/login")
@@ -91,7 +93,7 @@ class AuthControllerTest {
 
         //when
         when(authService.login(userDto.getEmail(), userDto.getPassword())).thenReturn(null);
-        when(jwtTokenProvider.createJwtCookie(userDto.getEmail(),userDto.getRole())).thenReturn(new Cookie("test","test"));
+        when(jwtTokenProvider.createJwtCookie(any(), eq(userDto.getEmail()), eq(userDto.getRole()))).thenReturn(new Cookie("test","test"));
 
         //then
         mvc.perform(post("/api/auth/login")
@@ -0,0 +1,115 @@
+package com.teamproject.back.entity;
+
+import com.teamproject.back.util.AesUtil;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+//회원 email/username 지연 복호화 검증
+//조회만 하고 flush 하면 UPDATE 가 없어야 하고, 복호화는 getEmail/getUsername 을 처음 부를 때 한 번만
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "aes.secret=0123456789abcdef",
+        "aes.blind-index-secret=blind-index-test-secret"
+})
+@Import(AesUtil.class)
+class UsersTest {
+
+    private static final int USER_COUNT = 10;
+
+    EntityManager entityManager;
+    Statistics statistics;
+
+    @Autowired
+    public UsersTest(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < USER_COUNT; i++) {
+            entityManager.persist(Users.builder()
+                    .email("user" + i + "@test.com")
+                    .password("password")
+                    .username("username" + i)
+                    .role(Role.USER)
+                    .birthday(LocalDate.of(2000, 1, 1))
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void 저장시암호화되고해시가채워짐(){
+        //given
+
+        //when
+        Users user = entityManager.createQuery("SELECT u FROM Users u WHERE u.emailHash = :hash", Users.class)
+                .setParameter("hash", AesUtil.blindIndex("user0@test.com"))
+                .getSingleResult();
+
+        //then
+        assertTrue(AesUtil.isCurrentFormat(readColumn(user.getId(), "email")));
+        assertTrue(AesUtil.isCurrentFormat(readColumn(user.getId(), "username")));
+        assertEquals("user0@test.com", user.getEmail());
+        assertEquals("username0", user.getUsername());
+    }
+
+    @Test
+    public void 조회후flush해도UPDATE가없음(){
+        //given
+        List<Users> users = entityManager.createQuery("SELECT u FROM Users u", Users.class).getResultList();
+        users.forEach(Users::getEmail);
+
+        //when
+        entityManager.flush();
+
+        //then
+        assertEquals(USER_COUNT, users.size());
+        assertEquals(0, statistics.getEntityUpdateCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void 복호화는처음읽을때한번만(){
+        try (MockedStatic<AesUtil> aesUtil = mockStatic(AesUtil.class, CALLS_REAL_METHODS)) {
+            //given
+            List<Users> users = entityManager.createQuery("SELECT u FROM Users u ORDER BY u.id", Users.class).getResultList();
+            aesUtil.verify(() -> AesUtil.decrypt(anyString()), never());
+
+            //when
+            String email = users.get(0).getEmail();
+            String emailAgain = users.get(0).getEmail();
+            String username = users.get(0).getUsername();
+
+            //then
+            assertEquals("user0@test.com", email);
+            assertEquals(email, emailAgain);
+            assertEquals("username0", username);
+            aesUtil.verify(() -> AesUtil.decrypt(anyString()), times(2));
+        }
+    }
+
+    private String readColumn(Long id, String column){
+        return (String) entityManager.createNativeQuery("SELECT " + column + " FROM users WHERE id = :id")
+                .setParameter("id", id)
+                .getSingleResult();
+    }
+}
@@ -0,0 +1,182 @@
+package com.teamproject.back.job;
+
+import com.teamproject.back.entity.KeyRotationCheckpoint;
+import com.teamproject.back.repository.KeyRotationCheckpointRepository;
+import com.teamproject.back.repository.UserCryptoRepository;
+import com.teamproject.back.util.AesUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//회원 암호화 키 교체 검증 (회원 1,000,000명)
+//짝수 id = 이전 형식 (ECB, 1번 키), 홀수 id = "v1:" (GCM, 1번 키) -> 모두 현재 키 (2번) 로 바뀌어야 함
+//작업 스레드가 각자 커밋하므로 테스트 트랜잭션 없이 실행
+//데이터가 커서 기본 test 에서는 제외 -> ./gradlew slowTest
+@Tag("slow")
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:key_rotation_test;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "aes.secret=" + UserKeyRotationJobTest.OLD_SECRET,
+        "aes.key-ring=2:fedcba9876543210",
+        "aes.blind-index-secret=blind-index-test-secret",
+        "aes.active-key-version=2",
+        "aes.rotation.chunk-size=" + UserKeyRotationJobTest.CHUNK_SIZE,
+        "aes.rotation.batch-size=1000",
+        "aes.rotation.threads=4",
+        "aes.rotation.target-batch-millis=1000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({UserKeyRotationJob.class, UserCryptoRepository.class, KeyRotationCheckpointRepository.class, AesUtil.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserKeyRotationJobTest {
+
+    static final String OLD_SECRET = "0123456789abcdef";
+    static final int CHUNK_SIZE = 50_000;
+    private static final int USER_COUNT = 1_000_000;
+    private static final int INSERT_BATCH_SIZE = 10_000;
+    private static final int USERNAME_VARIANTS = 100;
+
+    UserKeyRotationJob userKeyRotationJob;
+    KeyRotationCheckpointRepository checkpointRepository;
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public UserKeyRotationJobTest(UserKeyRotationJob userKeyRotationJob,
+                                  KeyRotationCheckpointRepository checkpointRepository,
+                                  JdbcTemplate jdbcTemplate) {
+        this.userKeyRotationJob = userKeyRotationJob;
+        this.checkpointRepository = checkpointRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        //username 은 종류를 줄여 미리 암호화 (같은 암호문이어도 교체 결과는 행마다 다름)
+        String[] legacyUsernames = new String[USERNAME_VARIANTS];
+        String[] v1Usernames = new String[USERNAME_VARIANTS];
+        for (int i = 0; i < USERNAME_VARIANTS; i++) {
+            legacyUsernames[i] = AesUtil.encryptLegacy("user" + i);
+            v1Usernames[i] = encryptV1("user" + i);
+        }
+
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        SecureRandom random = new SecureRandom();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 1; i <= USER_COUNT; i++) {
+            String email = emailOf(i);
+            boolean legacy = i % 2 == 0;
+            rows.add(new Object[]{
+                    legacy ? AesUtil.encryptLegacy(email) : encryptV1(cipher, random, email),
+                    "hash" + i,
+                    "password",
+                    //10명 중 1명은 username 없음
+                    i % 10 == 0 ? null : (legacy ? legacyUsernames : v1Usernames)[i % USERNAME_VARIANTS],
+                    "USER",
+                    now
+            });
+            if (rows.size() == INSERT_BATCH_SIZE) {
+                insertUsers(rows);
+                rows.clear();
+            }
+        }
+        insertUsers(rows);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.update("DELETE FROM key_rotation_checkpoint");
+    }
+
+    @Test
+    public void 중단후체크포인트부터이어서모든회원을현재키로교체(){
+        //given
+        long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM users", Long.class);
+        long minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users", Long.class);
+
+        //when
+        long firstRun = userKeyRotationJob.rotate(3);
+        KeyRotationCheckpoint checkpoint = checkpointRepository.findByName("users");
+        long secondRun = userKeyRotationJob.rotate();
+
+        //then
+        //첫 실행은 3구간만 진행하고 체크포인트 저장
+        assertEquals(2, checkpoint.getKeyVersion());
+        assertEquals(3L * CHUNK_SIZE, checkpoint.getLastId());
+        assertEquals(3L * CHUNK_SIZE - (minId - 1), firstRun);
+
+        //두 번째 실행은 체크포인트 다음부터 -> 합계가 전체 회원 수
+        assertEquals(USER_COUNT, firstRun + secondRun);
+        assertEquals(maxId, checkpointRepository.findByName("users").getLastId());
+        assertEquals(0L, count("SELECT COUNT(*) FROM users WHERE email NOT LIKE 'v2:%'"));
+        assertEquals(0L, count("SELECT COUNT(*) FROM users WHERE username IS NOT NULL AND username NOT LIKE 'v2:%'"));
+        assertEquals(USER_COUNT / 10L, count("SELECT COUNT(*) FROM users WHERE username IS NULL"));
+
+        for (long id : new long[]{minId, minId + 1, minId + USER_COUNT / 2, maxId}) {
+            int i = (int) (id - minId + 1);
+            assertEquals(emailOf(i), AesUtil.decrypt(jdbcTemplate.queryForObject(
+                    "SELECT email FROM users WHERE id = ?", String.class, id)));
+        }
+        String username = jdbcTemplate.queryForObject("SELECT username FROM users WHERE id = ?", String.class, minId);
+        assertEquals("user1", AesUtil.decrypt(username));
+
+        //다시 실행하면 할 일이 없음
+        assertEquals(0L, userKeyRotationJob.rotate());
+    }
+
+    private void insertUsers(List<Object[]> rows){
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (email, email_hash, password, username, role, enroll_date) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private long count(String sql){
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private static String emailOf(int i){
+        return "user" + i + "@test.com";
+    }
+
+    private static String encryptV1(String input) throws Exception {
+        return encryptV1(Cipher.getInstance("AES/GCM/NoPadding"), new SecureRandom(), input);
+    }
+
+    //AesUtil 과 같은 형식으로 1번 키 암호문 생성 (현재 키가 2번이라 AesUtil.encrypt 로는 만들 수 없음)
+    private static String encryptV1(Cipher cipher, SecureRandom random, String input) throws Exception {
+        byte[] iv = new byte[12];
+        random.nextBytes(iv);
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(OLD_SECRET.getBytes(), "AES"), new GCMParameterSpec(128, iv));
+        byte[] encrypted = cipher.doFinal(input.getBytes(StandardCharsets.UTF_8));
+        byte[] output = new byte[iv.length + encrypted.length];
+        System.arraycopy(iv, 0, output, 0, iv.length);
+        System.arraycopy(encrypted, 0, output, iv.length, encrypted.length);
+        return "v1:" + Base64.getEncoder().encodeToString(output);
+    }
+}
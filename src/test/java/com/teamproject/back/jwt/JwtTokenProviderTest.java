@@ -0,0 +1,81 @@
+package com.teamproject.back.jwt;
+
+import com.teamproject.back.entity.Role;
+import com.teamproject.back.util.SecurityUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//토큰의 userId(uid) 클레임 -> JwtPrincipal -> SecurityUtil.currentUserId 검증
+class JwtTokenProviderTest {
+
+    private static final String KEY = "0123456789abcdef0123456789abcdef";
+    private static final String EMAIL = "jwt@test.com";
+
+    JwtTokenProvider jwtTokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(jwtTokenProvider, "KEY", KEY);
+        ReflectionTestUtils.setField(jwtTokenProvider, "VERIFIED_CACHE_SIZE", 100);
+        ReflectionTestUtils.invokeMethod(jwtTokenProvider, "setSecretKey");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void 토큰의회원id가인증정보로전달됨(){
+        //given
+        String token = jwtTokenProvider.createToken(7L, EMAIL, Role.USER);
+
+        //when
+        Authentication authentication = jwtTokenProvider.getAuthentication(token);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        //then
+        JwtPrincipal principal = assertInstanceOf(JwtPrincipal.class, authentication.getPrincipal());
+        assertEquals(7L, principal.getUserId());
+        assertEquals(EMAIL, principal.getUsername());
+        assertEquals(7L, SecurityUtil.currentUserId());
+        assertEquals(EMAIL, SecurityUtil.currentEmail());
+    }
+
+    @Test
+    public void 회원id가없는이전토큰은null(){
+        //given
+        String token = jwtTokenProvider.createToken(EMAIL, Role.USER);
+
+        //when
+        Authentication authentication = jwtTokenProvider.getAuthentication(token);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        //then
+        assertTrue(jwtTokenProvider.isValid(token));
+        assertNull(((JwtPrincipal) authentication.getPrincipal()).getUserId());
+        assertNull(SecurityUtil.currentUserId());
+        assertEquals(EMAIL, SecurityUtil.currentEmail());
+    }
+
+    @Test
+    public void 서명이다른토큰은인증되지않음(){
+        //given
+        String token = jwtTokenProvider.createToken(7L, EMAIL, Role.USER);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        //when
+        boolean valid = jwtTokenProvider.isValid(tampered);
+
+        //then
+        assertFalse(valid);
+        assertNull(jwtTokenProvider.getAuthentication(tampered));
+    }
+}
@@ -0,0 +1,314 @@
+package com.teamproject.back.repository;
+
+import com.teamproject.back.entity.Category;
+import com.teamproject.back.entity.Comment;
+import com.teamproject.back.entity.Item;
+import com.teamproject.back.entity.Likes;
+import com.teamproject.back.entity.Role;
+import com.teamproject.back.entity.Users;
+import com.teamproject.back.util.AesUtil;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//댓글 경로(path) 조회, 이관 + 하위 답글 전체 삭제 검증
+//답글 1,000개 (부모 = (i - 1) / 2 번째 댓글인 이진 트리, 깊이 약 10) 를 한 번에 삭제
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "aes.secret=0123456789abcdef",
+        "aes.blind-index-secret=blind-index-test-secret"
+})
+@Import({CommentRepository.class, AesUtil.class})
+class CommentRepositoryTest {
+
+    private static final int REPLY_COUNT = 1000;
+    private static final int RATING = 4;
+    //경로 조회 1 + 경로 없는 하위 답글 확인 1 + 하위 댓글 조회 1 + (부모 참조 해제, 좋아요 삭제, 댓글 삭제) x IN 목록 2개 + 상품 집계 2
+    private static final int MAX_STATEMENT_COUNT = 3 + 3 * 2 + 2;
+
+    CommentRepository commentRepository;
+    EntityManager entityManager;
+    Statistics statistics;
+
+    Integer itemId;
+    Long userId;
+    Long rootId;
+    Long lastReplyId;
+    Long otherCommentId;
+
+    @Autowired
+    public CommentRepositoryTest(CommentRepository commentRepository, EntityManager entityManager) {
+        this.commentRepository = commentRepository;
+        this.entityManager = entityManager;
+    }
+
+    @BeforeEach
+    void setUp() {
+        //삭제 대상 : 루트 1 + 답글 1,000, 남아야 하는 댓글 1
+        int commentCount = REPLY_COUNT + 2;
+        Item item = Item.builder()
+                .itemName("item")
+                .itemStock(10)
+                .itemPrice(1000)
+                .itemOriginPrice(1200)
+                .category(Category.values()[0])
+                .ratingSum((long) RATING * commentCount)
+                .ratingCount(commentCount)
+                .commentCount(commentCount)
+                .ratingAverage(RATING)
+                .star4Count(commentCount)
+                .build();
+        entityManager.persist(item);
+
+        Users user = Users.builder()
+                .email("comment@test.com")
+                .password("password")
+                .username("username")
+                .role(Role.USER)
+                .birthday(LocalDate.of(2000, 1, 1))
+                .build();
+        entityManager.persist(user);
+
+        List<Comment> thread = new ArrayList<>(REPLY_COUNT + 1);
+        for (int i = 0; i <= REPLY_COUNT; i++) {
+            Comment comment = Comment.builder()
+                    .content("content" + i)
+                    .rating(RATING)
+                    .item(item)
+                    .parentComment(i == 0 ? null : thread.get((i - 1) / 2))
+                    .build();
+            entityManager.persist(comment);
+            comment.assignPath();
+            thread.add(comment);
+
+            if (i % 10 == 0) {
+                entityManager.persist(Likes.builder().comment(comment).users(user).build());
+            }
+        }
+
+        Comment other = Comment.builder()
+                .content("other")
+                .rating(RATING)
+                .item(item)
+                .build();
+        entityManager.persist(other);
+        other.assignPath();
+        entityManager.persist(Likes.builder().comment(other).users(user).build());
+
+        entityManager.flush();
+        entityManager.clear();
+
+        itemId = item.getId();
+        userId = user.getId();
+        rootId = thread.get(0).getId();
+        lastReplyId = thread.get(REPLY_COUNT).getId();
+        otherCommentId = other.getId();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void 댓글삭제시모든하위답글과좋아요가삭제됨(){
+        //given
+
+        //when
+        int deleted = commentRepository.deleteSubtree(rootId);
+
+        //then
+        assertEquals(REPLY_COUNT + 1, deleted);
+        assertEquals(1L, count("SELECT COUNT(c) FROM Comment c"));
+        assertEquals(1L, count("SELECT COUNT(l) FROM Likes l"));
+        assertNotNull(entityManager.find(Comment.class, otherCommentId));
+    }
+
+    @Test
+    public void 하위답글수와상관없이문장수가일정(){
+        //given
+
+        //when
+        commentRepository.deleteSubtree(rootId);
+
+        //then
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENT_COUNT,
+                "statements : " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void 삭제한댓글만큼상품집계가감소(){
+        //given
+
+        //when
+        commentRepository.deleteSubtree(rootId);
+
+        //then
+        Item item = entityManager.find(Item.class, itemId);
+        assertEquals(1, item.getCommentCount());
+        assertEquals(1, item.getRatingCount());
+        assertEquals(RATING, item.getRatingSum());
+        assertEquals(RATING, item.getRatingAverage());
+        assertEquals(List.of(0, 0, 0, 1, 0), item.getRatingDistribution());
+    }
+
+    @Test
+    public void 리뷰작성과삭제시해당별점만증감(){
+        //given
+        int commentCount = REPLY_COUNT + 2;
+
+        //when
+        Comment saved = commentRepository.save(itemId, userId, Comment.builder().content("new").rating(2).build());
+        Item afterSave = findItem();
+        int deleted = commentRepository.delete(saved.getId());
+
+        //then
+        assertEquals(List.of(0, 1, 0, commentCount, 0), afterSave.getRatingDistribution());
+        assertEquals(commentCount + 1, afterSave.getCommentCount());
+        assertEquals((long) RATING * commentCount + 2, afterSave.getRatingSum());
+
+        assertEquals(1, deleted);
+        Item item = findItem();
+        assertEquals(commentCount, item.getCommentCount());
+        assertEquals(List.of(0, 0, 0, commentCount, 0), item.getRatingDistribution());
+        assertEquals(commentCount, item.getRatingCount());
+        assertEquals((long) RATING * commentCount, item.getRatingSum());
+    }
+
+    @Test
+    public void 평점수정시이전별점에서새별점으로이동(){
+        //given
+        int commentCount = REPLY_COUNT + 2;
+
+        //when
+        commentRepository.update(Comment.builder().id(otherCommentId).content("changed").rating(2).build());
+
+        //then
+        Item item = findItem();
+        assertEquals(List.of(0, 1, 0, commentCount - 1, 0), item.getRatingDistribution());
+        assertEquals(commentCount, item.getRatingCount());
+        assertEquals((long) RATING * commentCount - (RATING - 2), item.getRatingSum());
+    }
+
+    @Test
+    public void 평점없이내용만수정하면분포그대로(){
+        //given
+        int commentCount = REPLY_COUNT + 2;
+
+        //when
+        commentRepository.update(Comment.builder().id(otherCommentId).content("changed").build());
+
+        //then
+        assertEquals(List.of(0, 0, 0, commentCount, 0), findItem().getRatingDistribution());
+    }
+
+    @Test
+    public void 없는댓글삭제는0(){
+        //given
+
+        //when
+        int deleted = commentRepository.deleteSubtree(-1L);
+
+        //then
+        assertEquals(0, deleted);
+        assertEquals(REPLY_COUNT + 2L, count("SELECT COUNT(c) FROM Comment c"));
+    }
+
+    @Test
+    public void 경로가없는댓글은재귀조회로삭제(){
+        //given
+        entityManager.createQuery("UPDATE Comment c SET c.path = NULL").executeUpdate();
+
+        //when
+        int deleted = commentRepository.deleteSubtree(rootId);
+
+        //then
+        assertEquals(REPLY_COUNT + 1, deleted);
+        assertEquals(1L, count("SELECT COUNT(c) FROM Comment c"));
+    }
+
+    @Test
+    public void 루트만경로가있고답글은이관전이어도모두삭제(){
+        //given
+        entityManager.createQuery("UPDATE Comment c SET c.path = NULL WHERE c.parentComment IS NOT NULL").executeUpdate();
+
+        //when
+        int deleted = commentRepository.deleteSubtree(rootId);
+
+        //then
+        assertEquals(REPLY_COUNT + 1, deleted);
+        assertEquals(1L, count("SELECT COUNT(c) FROM Comment c"));
+    }
+
+    @Test
+    public void 답글경로이관전에도하위답글전체를조회(){
+        //given
+        entityManager.createQuery("UPDATE Comment c SET c.path = NULL WHERE c.depth >= 5").executeUpdate();
+
+        //when
+        List<Comment> subtree = commentRepository.findSubtree(rootId);
+
+        //then
+        assertEquals(REPLY_COUNT + 1, subtree.size());
+        assertEquals(rootId, subtree.get(0).getId());
+    }
+
+    @Test
+    public void 경로로조상과하위답글을조회(){
+        //given
+        String path = commentRepository.findPathById(lastReplyId);
+
+        //when
+        List<Comment> ancestors = commentRepository.findAncestorsByPath(path);
+        long descendants = commentRepository.findSubtree(rootId).size() - 1;
+
+        //then
+        Comment lastReply = entityManager.find(Comment.class, lastReplyId);
+        assertEquals(lastReply.depth(), ancestors.size());
+        assertEquals(rootId, ancestors.get(0).getId());
+        assertEquals(lastReply.getParentComment().getId(), ancestors.get(ancestors.size() - 1).getId());
+        assertEquals(REPLY_COUNT, descendants);
+    }
+
+    @Test
+    public void 경로이관은루트부터모든답글을채움(){
+        //given
+        entityManager.createQuery("UPDATE Comment c SET c.path = NULL, c.depth = 0").executeUpdate();
+
+        //when
+        Set<Long> failedIds = new HashSet<>();
+        int total = 0;
+        int count;
+        while ((count = commentRepository.backfillPaths(100, failedIds)) > 0) {
+            total += count;
+        }
+
+        //then
+        assertEquals(REPLY_COUNT + 2, total);
+        assertTrue(failedIds.isEmpty());
+        assertEquals(0L, count("SELECT COUNT(c) FROM Comment c WHERE c.path IS NULL"));
+        assertEquals(REPLY_COUNT + 1, commentRepository.findSubtree(rootId).size());
+    }
+
+    //벌크 UPDATE 로 바뀐 집계를 읽도록 반영 후 영속성 컨텍스트를 비우고 조회
+    private Item findItem(){
+        entityManager.flush();
+        entityManager.clear();
+        return entityManager.find(Item.class, itemId);
+    }
+
+    private long count(String jpql){
+        return entityManager.createQuery(jpql, Long.class).getSingleResult();
+    }
+}
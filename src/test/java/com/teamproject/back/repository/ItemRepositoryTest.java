@@ -0,0 +1,101 @@
+package com.teamproject.back.repository;
+
+import com.teamproject.back.dto.ItemSummaryDto;
+import com.teamproject.back.entity.Category;
+import com.teamproject.back.entity.Item;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//상품 목록 한 페이지 조회 시 실행되는 SQL 문 개수 검증
+//페이지 크기와 상관없이 일정해야 함 (상품별 평점 조회 N+1 방지)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(ItemRepository.class)
+class ItemRepositoryTest {
+
+    private static final int PAGE_SIZE = 50;
+
+    ItemRepository itemRepository;
+    EntityManager entityManager;
+    Statistics statistics;
+
+    @Autowired
+    public ItemRepositoryTest(ItemRepository itemRepository, EntityManager entityManager) {
+        this.itemRepository = itemRepository;
+        this.entityManager = entityManager;
+    }
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 1; i <= PAGE_SIZE * 2; i++) {
+            entityManager.persist(Item.builder()
+                    .itemName("item" + i)
+                    .itemDesc("desc" + i)
+                    .itemImg("img" + i)
+                    .itemStock(10)
+                    .itemPrice(1000 * i)
+                    .itemOriginPrice(1200 * i)
+                    .itemBrand("brand")
+                    .category(Category.values()[i % Category.values().length])
+                    .ratingSum(i % 5 + 1)
+                    .ratingCount(1)
+                    .commentCount(1)
+                    .ratingAverage(i % 5 + 1)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void 상품목록한페이지는쿼리한번으로평점까지조회(){
+        //given
+
+        //when
+        List<ItemSummaryDto> items = itemRepository.findItemsWithPagination(PAGE_SIZE, 1);
+
+        //then
+        assertEquals(PAGE_SIZE, items.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void 상품목록쿼리수는페이지크기와무관(){
+        //given
+        itemRepository.findItemsSortedByRecommendDesc(5, 1);
+        long smallPage = statistics.getPrepareStatementCount();
+        statistics.clear();
+
+        //when
+        itemRepository.findItemsSortedByRecommendDesc(PAGE_SIZE, 1);
+        long largePage = statistics.getPrepareStatementCount();
+
+        //then
+        assertEquals(smallPage, largePage);
+    }
+
+    @Test
+    public void 관리자상품목록은평점조회쿼리를추가로실행하지않음(){
+        //given
+
+        //when
+        List<Item> items = itemRepository.findByAllItem(1, PAGE_SIZE);
+        items.forEach(item -> assertNotNull(item.getAverageRating()));
+
+        //then
+        assertEquals(PAGE_SIZE, items.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,145 @@
+package com.teamproject.back.repository;
+
+import com.teamproject.back.entity.Comment;
+import com.teamproject.back.entity.Role;
+import com.teamproject.back.entity.Users;
+import com.teamproject.back.util.AesUtil;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//좋아요 동시 요청 검증
+//INSERT IGNORE 를 쓰므로 H2 MySQL 모드, 스레드마다 커밋된 데이터를 봐야 하므로 테스트 트랜잭션 없이 실행
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:like_test;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "aes.secret=0123456789abcdef",
+        "aes.blind-index-secret=blind-index-test-secret"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({LikeRepository.class, AesUtil.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LikeRepositoryTest {
+
+    private static final int THREAD_COUNT = 16;
+
+    LikeRepository likeRepository;
+    EntityManager entityManager;
+    TransactionTemplate transactionTemplate;
+
+    Long userId;
+    Long commentId;
+
+    @Autowired
+    public LikeRepositoryTest(LikeRepository likeRepository, EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.likeRepository = likeRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Users user = Users.builder()
+                    .email("like@test.com")
+                    .password("password")
+                    .username("username")
+                    .role(Role.USER)
+                    .birthday(LocalDate.of(2000, 1, 1))
+                    .build();
+            entityManager.persist(user);
+
+            Comment comment = Comment.builder()
+                    .content("content")
+                    .rating(5)
+                    .build();
+            entityManager.persist(comment);
+
+            userId = user.getId();
+            commentId = comment.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM Likes l").executeUpdate();
+            entityManager.createQuery("DELETE FROM Comment c").executeUpdate();
+            entityManager.createQuery("DELETE FROM Users u").executeUpdate();
+        });
+    }
+
+    @Test
+    public void 동시에좋아요를눌러도한건만저장됨() throws Exception {
+        //given
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            results.add(executorService.submit(() -> {
+                start.await();
+                return likeRepository.insertIfAbsent(commentId, userId);
+            }));
+        }
+
+        //when
+        start.countDown();
+        int inserted = 0;
+        for (Future<Integer> result : results) {
+            inserted += result.get(30, TimeUnit.SECONDS);
+        }
+        executorService.shutdown();
+
+        //then
+        assertEquals(1, inserted);
+        assertEquals(1L, countLikeRows());
+        assertEquals(1L, likeRepository.findCountByCommentId(commentId));
+    }
+
+    @Test
+    public void 좋아요추가와취소는반복해도결과가같음(){
+        //given
+        likeRepository.insertIfAbsent(commentId, userId);
+
+        //when
+        int secondInsert = likeRepository.insertIfAbsent(commentId, userId);
+        int firstDelete = likeRepository.deleteByUserId(commentId, userId);
+        int secondDelete = likeRepository.deleteByUserId(commentId, userId);
+
+        //then
+        assertEquals(0, secondInsert);
+        assertEquals(1, firstDelete);
+        assertEquals(0, secondDelete);
+        assertEquals(0L, countLikeRows());
+        assertEquals(0L, likeRepository.findCountByCommentId(commentId));
+    }
+
+    private long countLikeRows(){
+        return transactionTemplate.execute(status -> entityManager
+                .createQuery("SELECT COUNT(l) FROM Likes l WHERE l.comment.id = :commentId", Long.class)
+                .setParameter("commentId", commentId)
+                .getSingleResult());
+    }
+}
@@ -0,0 +1,137 @@
+package com.teamproject.back.repository;
+
+import com.teamproject.back.entity.Role;
+import com.teamproject.back.entity.Users;
+import com.teamproject.back.util.AesUtil;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//email_hash 조회 + 이관 전 (email_hash 없음, 이전 형식 암호문) 회원 처리 검증
+@DataJpaTest(properties = {
+        "aes.secret=0123456789abcdef",
+        "aes.blind-index-secret=blind-index-test-secret"
+})
+@Import({UserRepository.class, AuthRepository.class, AesUtil.class})
+class UserEmailHashTest {
+
+    private static final String LEGACY_EMAIL = "legacy@test.com";
+    private static final String LEGACY_USERNAME = "legacy";
+
+    UserRepository userRepository;
+    AuthRepository authRepository;
+    EntityManager entityManager;
+
+    Long legacyUserId;
+
+    @Autowired
+    public UserEmailHashTest(UserRepository userRepository, AuthRepository authRepository, EntityManager entityManager) {
+        this.userRepository = userRepository;
+        this.authRepository = authRepository;
+        this.entityManager = entityManager;
+    }
+
+    @BeforeEach
+    void setUp() {
+        //이관 전 데이터 : 엔티티를 거치지 않고 이전 형식 (ECB) 암호문, email_hash 없이 저장
+        entityManager.createNativeQuery("INSERT INTO users (email, email_hash, password, username, role, enroll_date) " +
+                        "VALUES (:email, NULL, 'password', :username, 'USER', :enrollDate)")
+                .setParameter("email", AesUtil.encryptLegacy(LEGACY_EMAIL))
+                .setParameter("username", AesUtil.encryptLegacy(LEGACY_USERNAME))
+                .setParameter("enrollDate", LocalDateTime.now())
+                .executeUpdate();
+        legacyUserId = ((Number) entityManager.createNativeQuery("SELECT id FROM users WHERE email_hash IS NULL")
+                .getSingleResult()).longValue();
+    }
+
+    @Test
+    public void 이관전회원도이메일로조회됨(){
+        //given
+
+        //when
+        Users user = userRepository.findByEmail(LEGACY_EMAIL);
+        Users authUser = authRepository.findByEmail(LEGACY_EMAIL);
+        Long userId = userRepository.findIdByEmail(LEGACY_EMAIL);
+
+        //then
+        assertNotNull(user);
+        assertEquals(LEGACY_EMAIL, user.getEmail());
+        assertEquals(LEGACY_USERNAME, user.getUsername());
+        assertEquals(legacyUserId, authUser.getId());
+        assertEquals(legacyUserId, userId);
+        assertNull(userRepository.findByEmail("none@test.com"));
+    }
+
+    @Test
+    public void 이관전회원도정보수정됨(){
+        //given
+
+        //when
+        int usernameCount = userRepository.patchUsername(LEGACY_EMAIL, "changed");
+        int passwordCount = userRepository.patchPassword(LEGACY_EMAIL, "newPassword");
+
+        //then
+        assertEquals(1, usernameCount);
+        assertEquals(1, passwordCount);
+        Users user = entityManager.find(Users.class, legacyUserId);
+        assertEquals("changed", user.getUsername());
+        assertEquals("newPassword", user.getPassword());
+    }
+
+    @Test
+    public void 이관하면해시가채워지고새형식으로다시암호화됨(){
+        //given
+
+        //when
+        int count = userRepository.backfillEmailHashes(100);
+        int again = userRepository.backfillEmailHashes(100);
+
+        //then
+        assertEquals(1, count);
+        assertEquals(0, again);
+        assertEquals(AesUtil.blindIndex(LEGACY_EMAIL), readColumn("email_hash"));
+        assertTrue(AesUtil.isCurrentFormat(readColumn("email")));
+        assertTrue(AesUtil.isCurrentFormat(readColumn("username")));
+
+        Users user = userRepository.findByEmail(LEGACY_EMAIL);
+        assertEquals(legacyUserId, user.getId());
+        assertEquals(LEGACY_USERNAME, user.getUsername());
+    }
+
+    @Test
+    public void 같은이메일해시는저장되지않음(){
+        //given
+        userRepository.save(newUser("duplicate@test.com"));
+
+        //when
+
+        //then
+        assertThrows(DataIntegrityViolationException.class,
+                () -> userRepository.save(newUser("duplicate@test.com")));
+    }
+
+    private Users newUser(String email){
+        return Users.builder()
+                .email(email)
+                .password("password")
+                .username("username")
+                .role(Role.USER)
+                .birthday(LocalDate.of(2000, 1, 1))
+                .build();
+    }
+
+    private String readColumn(String column){
+        return (String) entityManager.createNativeQuery("SELECT " + column + " FROM users WHERE id = :id")
+                .setParameter("id", legacyUserId)
+                .getSingleResult();
+    }
+}
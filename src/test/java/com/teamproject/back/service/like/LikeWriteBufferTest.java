@@ -0,0 +1,200 @@
+package com.teamproject.back.service.like;
+
+import com.teamproject.back.dto.LikeDto;
+import com.teamproject.back.jwt.JwtPrincipal;
+import com.teamproject.back.repository.LikeBatchRepository;
+import com.teamproject.back.repository.LikeRepository;
+import com.teamproject.back.repository.UserRepository;
+import com.teamproject.back.service.LikeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+//좋아요 쓰기 지연 검증 (DB 는 mock, flush 는 직접 호출)
+class LikeWriteBufferTest {
+
+    private static final Long COMMENT_ID = 1L;
+    private static final Long USER_ID = 10L;
+
+    LikeRepository likeRepository;
+    LikeBatchRepository likeBatchRepository;
+    LikeWriteBuffer likeWriteBuffer;
+
+    @BeforeEach
+    void setUp() {
+        likeRepository = mock(LikeRepository.class);
+        likeBatchRepository = mock(LikeBatchRepository.class);
+        likeWriteBuffer = new LikeWriteBuffer(likeRepository, likeBatchRepository, true);
+        when(likeRepository.findLikeState(COMMENT_ID, USER_ID)).thenReturn(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void 좋아요와취소를반복해도최종상태한건만반영(){
+        //given
+        for (int i = 0; i < 100; i++) {
+            likeWriteBuffer.toggle(COMMENT_ID, USER_ID, true);
+            likeWriteBuffer.toggle(COMMENT_ID, USER_ID, false);
+        }
+        likeWriteBuffer.toggle(COMMENT_ID, USER_ID, true);
+
+        //when
+        likeWriteBuffer.flush();
+
+        //then
+        Applied applied = captureApply(1).get(0);
+        assertEquals(1, applied.inserts().size());
+        assertArrayEquals(new Object[]{COMMENT_ID, USER_ID}, applied.inserts().get(0));
+        assertTrue(applied.deletes().isEmpty());
+        //기준값은 처음 한 번만 조회
+        verify(likeRepository, times(1)).findLikeState(COMMENT_ID, USER_ID);
+        assertEquals(0, likeWriteBuffer.pendingDelta(COMMENT_ID));
+        assertNull(likeWriteBuffer.pendingState(COMMENT_ID, USER_ID));
+    }
+
+    @Test
+    public void 저장된상태로되돌리면반영할것이없음(){
+        //given
+        when(likeRepository.findLikeState(COMMENT_ID, USER_ID)).thenReturn(true);
+        likeWriteBuffer.toggle(COMMENT_ID, USER_ID, false);
+        likeWriteBuffer.toggle(COMMENT_ID, USER_ID, true);
+
+        //when
+        likeWriteBuffer.flush();
+
+        //then
+        Applied applied = captureApply(1).get(0);
+        assertTrue(applied.inserts().isEmpty());
+        assertTrue(applied.deletes().isEmpty());
+        assertTrue(applied.commentIds().isEmpty());
+        assertEquals(0, likeWriteBuffer.pendingDelta(COMMENT_ID));
+    }
+
+    @Test
+    public void 이미같은상태거나없는댓글이면false(){
+        //given
+        when(likeRepository.findLikeState(2L, USER_ID)).thenReturn(null);
+
+        //when
+        boolean unlikeNotLiked = likeWriteBuffer.toggle(COMMENT_ID, USER_ID, false);
+        boolean like = likeWriteBuffer.toggle(COMMENT_ID, USER_ID, true);
+        boolean likeAgain = likeWriteBuffer.toggle(COMMENT_ID, USER_ID, true);
+        boolean missingComment = likeWriteBuffer.toggle(2L, USER_ID, true);
+
+        //then
+        assertFalse(unlikeNotLiked);
+        assertTrue(like);
+        assertFalse(likeAgain);
+        assertFalse(missingComment);
+        assertNull(likeWriteBuffer.pendingState(2L, USER_ID));
+        assertEquals(0, likeWriteBuffer.pendingDelta(2L));
+    }
+
+    @Test
+    public void 조회시대기중인상태와증감을합침(){
+        //given
+        UserRepository userRepository = mock(UserRepository.class);
+        LikeService likeService = new LikeService(likeRepository, userRepository, likeWriteBuffer);
+        JwtPrincipal principal = new JwtPrincipal(USER_ID, "like@test.com", List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, "token", List.of()));
+        when(likeRepository.findCountByCommentId(COMMENT_ID)).thenReturn(5L);
+        when(likeRepository.existsByUserId(COMMENT_ID, USER_ID)).thenReturn(false);
+
+        //when
+        Long added = likeService.addLike(COMMENT_ID);
+        Long addedAgain = likeService.addLike(COMMENT_ID);
+        LikeDto likeDto = likeService.countLike(COMMENT_ID);
+
+        //then
+        assertEquals(COMMENT_ID, added);
+        assertNull(addedAgain);
+        assertEquals(6L, likeDto.getTotalLike());
+        assertTrue(likeDto.isClicked());
+        verifyNoInteractions(likeBatchRepository);
+    }
+
+    @Test
+    public void 반영실패시다음주기에다시반영(){
+        //given
+        doThrow(new IllegalStateException("db down"))
+                .doNothing()
+                .when(likeBatchRepository).apply(anyList(), anyList(), any());
+        likeWriteBuffer.toggle(COMMENT_ID, USER_ID, true);
+
+        //when
+        likeWriteBuffer.flush();
+        boolean pendingAfterFailure = Boolean.TRUE.equals(likeWriteBuffer.pendingState(COMMENT_ID, USER_ID));
+        int deltaAfterFailure = likeWriteBuffer.pendingDelta(COMMENT_ID);
+        likeWriteBuffer.flush();
+
+        //then
+        assertTrue(pendingAfterFailure);
+        assertEquals(1, deltaAfterFailure);
+        List<Applied> applied = captureApply(2);
+        assertEquals(1, applied.get(1).inserts().size());
+        assertEquals(0, likeWriteBuffer.pendingDelta(COMMENT_ID));
+        assertNull(likeWriteBuffer.pendingState(COMMENT_ID, USER_ID));
+    }
+
+    @Test
+    public void 반영중에바뀐상태는남겨두고다음주기에반영(){
+        //given
+        likeWriteBuffer.toggle(COMMENT_ID, USER_ID, true);
+        //첫 반영 도중 (DB 에 쓰는 사이) 취소 요청
+        doAnswer(invocation -> {
+            likeWriteBuffer.toggle(COMMENT_ID, USER_ID, false);
+            return null;
+        }).doNothing().when(likeBatchRepository).apply(anyList(), anyList(), any());
+
+        //when
+        likeWriteBuffer.flush();
+        Boolean stateAfterFirstFlush = likeWriteBuffer.pendingState(COMMENT_ID, USER_ID);
+        int deltaAfterFirstFlush = likeWriteBuffer.pendingDelta(COMMENT_ID);
+        likeWriteBuffer.flush();
+
+        //then
+        //첫 반영 (좋아요) 이 기준값이 되고 취소는 대기 중으로 남음
+        assertEquals(Boolean.FALSE, stateAfterFirstFlush);
+        assertEquals(-1, deltaAfterFirstFlush);
+        List<Applied> applied = captureApply(2);
+        assertEquals(1, applied.get(0).inserts().size());
+        assertEquals(1, applied.get(1).deletes().size());
+        assertTrue(applied.get(1).inserts().isEmpty());
+        assertEquals(0, likeWriteBuffer.pendingDelta(COMMENT_ID));
+        assertNull(likeWriteBuffer.pendingState(COMMENT_ID, USER_ID));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Applied> captureApply(int times){
+        ArgumentCaptor<List<Object[]>> inserts = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<Object[]>> deletes = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Collection<Long>> commentIds = ArgumentCaptor.forClass(Collection.class);
+        verify(likeBatchRepository, times(times)).apply(inserts.capture(), deletes.capture(), commentIds.capture());
+
+        List<Applied> applied = new ArrayList<>();
+        for (int i = 0; i < times; i++) {
+            applied.add(new Applied(inserts.getAllValues().get(i), deletes.getAllValues().get(i), commentIds.getAllValues().get(i)));
+        }
+        return applied;
+    }
+
+    private record Applied(List<Object[]> inserts, List<Object[]> deletes, Collection<Long> commentIds) {
+    }
+}